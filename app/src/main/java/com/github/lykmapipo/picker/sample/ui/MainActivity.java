@@ -21,9 +21,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 
-public class MainActivity extends AppCompatActivity {
+public class MainActivity extends AppCompatActivity implements ValuePicker.ProviderFactory {
 
     private static final String TAG = MainActivity.class.getSimpleName();
+    private static final String DIALOG_PICKER = "contacts_dialog";
+    private static final String BOTTOM_SHEET_PICKER = "contacts_bottom_sheet";
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -32,62 +34,77 @@ public class MainActivity extends AppCompatActivity {
 
         // show dialog value picker
         Button btnDialogPicker = findViewById(R.id.btnDialogPicker);
-        btnDialogPicker.setOnClickListener(v -> ValuePicker.dialogPickerFor(this, new ValuePicker.Provider<Contact>() {
-            @Override
-            public String getTitle() {
-                return "Select Contact";
-            }
+        btnDialogPicker.setOnClickListener(v -> ValuePicker.dialogPickerFor(
+                this, DIALOG_PICKER, createProvider(DIALOG_PICKER)));
 
-            @Override
-            public String getSearchHint() {
-                return "Search Contacts...";
-            }
+        // show bottom sheet value picker
+        Button btnBottomSheetPicker = findViewById(R.id.btnBottomSheetPicker);
+        btnBottomSheetPicker.setOnClickListener(v -> ValuePicker.bottomPickerFor(
+                this, BOTTOM_SHEET_PICKER, createProvider(BOTTOM_SHEET_PICKER)));
+    }
 
-            @Override
-            public int getThreshold() {
-                return 2;
-            }
+    @Nullable
+    @Override
+    public ValuePicker.Provider createProvider(@NonNull String key) {
+        // provide pickers again once recreated(e.g after rotation)
+        if (DIALOG_PICKER.equals(key)) {
+            return new ValuePicker.Provider<Contact>() {
+                @Override
+                public String getTitle() {
+                    return "Select Contact";
+                }
 
-            @NonNull
-            @Override
-            public Task<List<Contact>> getValues(@NonNull Query query) {
-                Log.d(MainActivity.TAG, "Query: " + query);
-                return getContactList();
-            }
+                @Override
+                public String getSearchHint() {
+                    return "Search Contacts...";
+                }
 
-            @NonNull
-            @Override
-            public void onValueSelected(Contact picked) {
-                Toast.makeText(MainActivity.this, "Picked: " + picked, Toast.LENGTH_SHORT).show();
-            }
-        }));
+                @Override
+                public int getThreshold() {
+                    return 2;
+                }
 
-        // show bottom sheet value picker
-        Button btnBottomSheetPicker = findViewById(R.id.btnBottomSheetPicker);
-        btnBottomSheetPicker.setOnClickListener(v -> ValuePicker.bottomPickerFor(this, new ValuePicker.SimpleProvider<Contact>() {
-            @Override
-            public String getTitle() {
-                return "Select Contact";
-            }
+                @NonNull
+                @Override
+                public Task<List<Contact>> getValues(@NonNull Query query) {
+                    Log.d(MainActivity.TAG, "Query: " + query);
+                    return getContactList();
+                }
 
-            @Override
-            public String getSearchHint() {
-                return "Search Contacts...";
-            }
+                @NonNull
+                @Override
+                public void onValueSelected(Contact picked) {
+                    Toast.makeText(MainActivity.this, "Picked: " + picked, Toast.LENGTH_SHORT).show();
+                }
+            };
+        }
+        if (BOTTOM_SHEET_PICKER.equals(key)) {
+            return new ValuePicker.SimpleProvider<Contact>() {
+                @Override
+                public String getTitle() {
+                    return "Select Contact";
+                }
 
-            @NonNull
-            @Override
-            public Task<List<Contact>> getValues(@NonNull Query query) {
-                Log.d(MainActivity.TAG, "Query: " + query);
-                return getContactList();
-            }
+                @Override
+                public String getSearchHint() {
+                    return "Search Contacts...";
+                }
 
-            @NonNull
-            @Override
-            public void onValueSelected(Contact picked) {
-                Toast.makeText(MainActivity.this, "Picked: " + picked, Toast.LENGTH_SHORT).show();
-            }
-        }));
+                @NonNull
+                @Override
+                public Task<List<Contact>> getValues(@NonNull Query query) {
+                    Log.d(MainActivity.TAG, "Query: " + query);
+                    return getContactList();
+                }
+
+                @NonNull
+                @Override
+                public void onValueSelected(Contact picked) {
+                    Toast.makeText(MainActivity.this, "Picked: " + picked, Toast.LENGTH_SHORT).show();
+                }
+            };
+        }
+        return null;
     }
 
     @Override
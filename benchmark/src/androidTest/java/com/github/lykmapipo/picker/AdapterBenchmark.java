@@ -0,0 +1,150 @@
+package com.github.lykmapipo.picker;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View;
+
+import androidx.appcompat.view.ContextThemeWrapper;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.annotation.UiThreadTest;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.github.lykmapipo.common.Common;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Benchmark {@link ValuePicker.PickableAdapter} row creation, measure, binding and avatars
+ * of each {@link ValuePicker.RowStyle}
+ */
+@RunWith(Parameterized.class)
+public class AdapterBenchmark {
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final ValuePicker.RowStyle rowStyle;
+    private RecyclerView parent;
+    private ValuePicker.PickableAdapter adapter;
+    private List<ValuePicker.Pickable> rows;
+
+    public AdapterBenchmark(ValuePicker.RowStyle rowStyle) {
+        this.rowStyle = rowStyle;
+    }
+
+    @Parameterized.Parameters(name = "rowStyle={0}")
+    public static Collection<Object[]> rowStyles() {
+        return Arrays.asList(new Object[][]{{ValuePicker.RowStyle.LAYOUT}, {ValuePicker.RowStyle.FLAT}});
+    }
+
+    @Before
+    public void setup() {
+        ValuePicker.setRowStyle(rowStyle);
+        Context context = new ContextThemeWrapper(
+                ApplicationProvider.getApplicationContext(), androidx.appcompat.R.style.Theme_AppCompat_Light_NoActionBar);
+        parent = new RecyclerView(context);
+        parent.setLayoutManager(new LinearLayoutManager(context));
+        adapter = new ValuePicker.PickableAdapter(pickable -> {
+        });
+        // bind prepared rows, as pickers do
+        rows = new ArrayList<>();
+        for (ValuePicker.Pickable value : Values.generate(1_000)) {
+            rows.add(ValuePicker.PickableRow.of(value));
+        }
+        adapter.submitList(rows);
+    }
+
+    @After
+    public void cleanup() {
+        ValuePicker.setRowStyle(ValuePicker.RowStyle.LAYOUT);
+    }
+
+    @Test
+    @UiThreadTest
+    public void inflateRow() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            adapter.onCreateViewHolder(parent, rowStyle.ordinal());
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void measureRow() {
+        View row = adapter.onCreateViewHolder(parent, rowStyle.ordinal()).itemView;
+        int width = View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY);
+        int height = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            row.forceLayout();
+            row.measure(width, height);
+            row.layout(0, 0, row.getMeasuredWidth(), row.getMeasuredHeight());
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void bindRow() {
+        ValuePicker.PickableAdapter.PickableViewHolder holder = adapter.onCreateViewHolder(parent, rowStyle.ordinal());
+        int position = 0;
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            adapter.onBindViewHolder(holder, position);
+            position = (position + 1) % rows.size();
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void drawRow() {
+        ValuePicker.PickableAdapter.PickableViewHolder holder = adapter.onCreateViewHolder(parent, rowStyle.ordinal());
+        adapter.onBindViewHolder(holder, 0);
+        View row = holder.itemView;
+        row.measure(View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        row.layout(0, 0, row.getMeasuredWidth(), row.getMeasuredHeight());
+        Canvas canvas = new Canvas(
+                Bitmap.createBitmap(row.getMeasuredWidth(), row.getMeasuredHeight(), Bitmap.Config.ARGB_8888));
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            row.draw(canvas);
+        }
+    }
+
+    @Test
+    public void letterAvatar() {
+        BenchmarkState state = benchmarkRule.getState();
+        int position = 0;
+        while (state.keepRunning()) {
+            ValuePicker.PickableRow row = ValuePicker.PickableRow.of(rows.get(position));
+            Common.Drawables.letterAvatarFor(row.letter, row.color);
+            position = (position + 1) % rows.size();
+        }
+    }
+
+    @Test
+    public void cachedLetterAvatar() {
+        ValuePicker.AvatarCache avatars = new ValuePicker.AvatarCache(ValuePicker.DEFAULT_AVATAR_CACHE_SIZE);
+        ValuePicker.AvatarCache.LetterAvatar avatar = new ValuePicker.AvatarCache.LetterAvatar();
+        BenchmarkState state = benchmarkRule.getState();
+        int position = 0;
+        while (state.keepRunning()) {
+            ValuePicker.PickableRow row = ValuePicker.PickableRow.of(rows.get(position));
+            avatars.letterAvatarFor(avatar, row.letter, row.color);
+            position = (position + 1) % rows.size();
+        }
+    }
+}
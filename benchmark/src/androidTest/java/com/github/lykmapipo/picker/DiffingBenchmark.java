@@ -0,0 +1,98 @@
+package com.github.lykmapipo.picker;
+
+import androidx.annotation.NonNull;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.recyclerview.widget.DiffUtil;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Benchmark diffing of prepared {@link ValuePicker.PickableRow} lists
+ */
+@RunWith(Parameterized.class)
+public class DiffingBenchmark {
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final List<ValuePicker.Pickable> oldRows;
+    private final List<ValuePicker.Pickable> newRows;
+
+    public DiffingBenchmark(int size) {
+        // replace every tenth value and drop every twentieth
+        List<ValuePicker.Pickable> values = Values.generate(size);
+        List<ValuePicker.Pickable> changed = Values.generate(size + 1);
+        oldRows = new ArrayList<>(size);
+        newRows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            oldRows.add(ValuePicker.PickableRow.of(values.get(i)));
+            if (i % 20 == 0) {
+                continue;
+            }
+            ValuePicker.Pickable value = i % 10 == 0 ? changed.get(i) : values.get(i);
+            newRows.add(ValuePicker.PickableRow.of(value));
+        }
+    }
+
+    @Parameterized.Parameters(name = "size={0}")
+    public static Collection<Object[]> sizes() {
+        return Arrays.asList(new Object[][]{{1_000}, {10_000}});
+    }
+
+    @Test
+    public void prepareRows() {
+        List<ValuePicker.Pickable> values = Values.generate(oldRows.size());
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (ValuePicker.Pickable value : values) {
+                new ValuePicker.PickableRow(value, "sa");
+            }
+        }
+    }
+
+    @Test
+    public void diffRows() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            DiffUtil.calculateDiff(new RowsCallback(oldRows, newRows));
+        }
+    }
+
+    static class RowsCallback extends DiffUtil.Callback {
+        final List<ValuePicker.Pickable> oldRows;
+        final List<ValuePicker.Pickable> newRows;
+
+        RowsCallback(@NonNull List<ValuePicker.Pickable> oldRows, @NonNull List<ValuePicker.Pickable> newRows) {
+            this.oldRows = oldRows;
+            this.newRows = newRows;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldRows.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newRows.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldPosition, int newPosition) {
+            return oldRows.get(oldPosition).getObjectId().equals(newRows.get(newPosition).getObjectId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldPosition, int newPosition) {
+            return oldRows.get(oldPosition).equals(newRows.get(newPosition));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.lykmapipo.picker;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import com.github.lykmapipo.common.data.Query;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Benchmark query filtering of in memory values
+ */
+@RunWith(Parameterized.class)
+public class FilteringBenchmark {
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final List<ValuePicker.Pickable> values;
+
+    public FilteringBenchmark(int size) {
+        this.values = Values.generate(size);
+    }
+
+    @Parameterized.Parameters(name = "size={0}")
+    public static Collection<Object[]> sizes() {
+        return Arrays.asList(new Object[][]{{1_000}, {10_000}, {100_000}});
+    }
+
+    @Test
+    public void buildIndex() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            new ValuePicker.FoldedIndex<>(values);
+        }
+    }
+
+    @Test
+    public void filterQuery() {
+        ValuePicker.FoldedIndex<ValuePicker.Pickable> index = new ValuePicker.FoldedIndex<>(values);
+        Query query = Query.create("salaam");
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            index.filter("");
+            state.resumeTiming();
+            index.filter(query);
+        }
+    }
+
+    @Test
+    public void filterKeystrokes() {
+        ValuePicker.FoldedIndex<ValuePicker.Pickable> index = new ValuePicker.FoldedIndex<>(values);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            index.filter("s");
+            index.filter("sa");
+            index.filter("sal");
+            index.filter("sala");
+        }
+    }
+
+    @Test
+    public void filterLinearScan() {
+        String text = ValuePicker.Folding.fold("salaam");
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (ValuePicker.Pickable value : values) {
+                ValuePicker.Folding.matches(value, text);
+            }
+        }
+    }
+
+    @Test
+    public void rankFuzzy() {
+        ValuePicker.FoldedIndex<ValuePicker.Pickable> index = new ValuePicker.FoldedIndex<>(values);
+        Query query = Query.create("slaam");
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            index.rank("");
+            state.resumeTiming();
+            index.rank(query);
+        }
+    }
+}
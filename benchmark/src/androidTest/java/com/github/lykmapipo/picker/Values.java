@@ -0,0 +1,84 @@
+package com.github.lykmapipo.picker;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic {@link ValuePicker.Pickable} values for benchmarks
+ */
+final class Values {
+    private static final String[] SYLLABLES = {
+            "dar", "es", "sa", "laam", "do", "do", "ma", "a", "ru", "sha", "ki", "go",
+            "mwan", "za", "mbe", "ya", "tan", "ga", "zan", "zi", "bar", "mo", "ro", "go"
+    };
+    private static final String[] COLORS = {"#F44336", "#3F51B5", "#4CAF50", "#FF9800", null};
+
+    private Values() {
+    }
+
+    @NonNull
+    static List<ValuePicker.Pickable> generate(int size) {
+        Random random = new Random(size);
+        List<ValuePicker.Pickable> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = word(random) + " " + word(random);
+            String description = word(random) + " Hospital";
+            String color = COLORS[random.nextInt(COLORS.length)];
+            values.add(new Value(String.valueOf(i), name, description, color));
+        }
+        return values;
+    }
+
+    @NonNull
+    private static String word(@NonNull Random random) {
+        StringBuilder word = new StringBuilder();
+        int syllables = 2 + random.nextInt(2);
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+        return word.toString();
+    }
+
+    static class Value implements ValuePicker.Pickable {
+        final String id;
+        final String name;
+        final String description;
+        final String color;
+
+        Value(String id, String name, String description, String color) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.color = color;
+        }
+
+        @NonNull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Nullable
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Nullable
+        @Override
+        public String getColor() {
+            return color;
+        }
+
+        @NonNull
+        @Override
+        public String getObjectId() {
+            return id;
+        }
+    }
+}
@@ -1,35 +1,109 @@
 package com.github.lykmapipo.picker;
 
 import android.app.Dialog;
+import android.app.Activity;
 import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.res.TypedArray;
+import android.database.CharArrayBuffer;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.LayerDrawable;
 import android.os.Bundle;
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Parcelable;
+import android.os.SystemClock;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.TextPaint;
+import android.text.style.StyleSpan;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.util.TypedValue;
+import android.view.Choreographer;
+import android.view.KeyEvent;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.Window;
+import android.view.accessibility.AccessibilityNodeInfo;
 import android.view.inputmethod.InputMethodManager;
+import android.widget.FrameLayout;
+import android.widget.ProgressBar;
 import android.widget.SearchView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.appcompat.content.res.AppCompatResources;
 import androidx.appcompat.widget.AppCompatImageView;
 import androidx.appcompat.widget.AppCompatTextView;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
 import androidx.fragment.app.DialogFragment;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentActivity;
 import androidx.fragment.app.FragmentManager;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleObserver;
+import androidx.lifecycle.OnLifecycleEvent;
+import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.amulyakhare.textdrawable.TextDrawable;
 import com.github.lykmapipo.common.Common;
 import com.github.lykmapipo.common.data.Diffable;
 import com.github.lykmapipo.common.data.Query;
 import com.github.lykmapipo.common.widget.recyclerview.DiffableListAdapter;
 import com.github.lykmapipo.listview.view.StateLayout;
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.CancellationTokenSource;
 import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.TaskExecutors;
+import com.google.android.gms.tasks.Tasks;
 import com.google.android.material.bottomsheet.BottomSheetDialogFragment;
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A pack of helpful helpers and uis to pick value from a given list of values.
@@ -39,6 +113,73 @@ import java.util.List;
  * @since 0.1.0
  */
 public class ValuePicker {
+    /**
+     * Default quiet period, in milliseconds, before a typed query is searched
+     *
+     * @since 0.8.0
+     */
+    public static final long DEFAULT_DEBOUNCE = 300L;
+
+    /**
+     * Default number of values per page of a {@link PagedProvider}
+     *
+     * @since 0.8.0
+     */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    /**
+     * Default number of pages kept in memory by a {@link Pager}
+     *
+     * @since 0.8.0
+     */
+    public static final int DEFAULT_MAX_PAGES = 5;
+
+    /**
+     * Default number of rows, from either list end, at which next page is requested
+     *
+     * @since 0.8.0
+     */
+    public static final int DEFAULT_PREFETCH_DISTANCE = 10;
+
+    /**
+     * Default number of letter avatars kept by {@link AvatarCache}
+     *
+     * @since 0.8.0
+     */
+    public static final int DEFAULT_AVATAR_CACHE_SIZE = 256;
+
+    /**
+     * Default number of rows pre-inflated by {@link #prewarm(FragmentActivity, Provider)}
+     *
+     * @since 0.8.0
+     */
+    public static final int DEFAULT_PREWARM_ROWS = 12;
+
+    /**
+     * Default number of visited values whose children are kept by a {@link TreeProvider} picker
+     *
+     * @since 0.8.0
+     */
+    public static final int DEFAULT_LEVEL_CACHE_SIZE = 16;
+
+    /**
+     * Default key of a {@link PickerSession}, used by pickers launched without a key
+     *
+     * @since 0.8.0
+     */
+    public static final String DEFAULT_KEY = "default";
+
+    private static final String ARG_KEY = "key";
+
+    private static final AvatarCache avatars = new AvatarCache(DEFAULT_AVATAR_CACHE_SIZE);
+
+    private static final Map<Activity, Prewarm> prewarms = new HashMap<>();
+
+    private static Executor executor;
+
+    private static volatile PickerMetrics metrics = PickerMetrics.NOOP;
+
+    private static RowStyle rowStyle = RowStyle.LAYOUT;
 
     /**
      * Launch dialog picker
@@ -47,15 +188,12 @@ public class ValuePicker {
      * @param provider
      * @since 0.1.0
      */
-    public static synchronized void dialogPickerFor(
+    public static void dialogPickerFor(
             @NonNull Fragment fragment,
             @NonNull Provider provider) {
         // TODO: support empty state icon, title and description
         // TODO: support error state icon, title and description
-        // TODO: support infinity list
-        // TODO: support selection highlight
-        // TODO: support multi selections
-        dialogPickerFor(fragment.requireActivity(), provider);
+        dialogPickerFor(fragment.requireActivity(), DEFAULT_KEY, provider);
     }
 
     /**
@@ -65,22 +203,38 @@ public class ValuePicker {
      * @param provider
      * @since 0.1.0
      */
-    public static synchronized void dialogPickerFor(
+    public static void dialogPickerFor(
             @NonNull FragmentActivity activity,
             @NonNull Provider provider) {
         // TODO: support empty state icon, title and description
         // TODO: support error state icon, title and description
-        // TODO: support infinity list
-        // TODO: support selection highlight
-        // TODO: support multi selections
+        dialogPickerFor(activity, DEFAULT_KEY, provider);
+    }
+
+    /**
+     * Launch dialog picker of a given key.
+     * <p>
+     * Pickers of distinct keys are shown concurrently, launching a key already shown is ignored.
+     * To keep a picker across configuration changes, let its host(i.e activity or parent
+     * fragment) implement {@link ProviderFactory} to provide it again once recreated.
+     *
+     * @param activity
+     * @param key
+     * @param provider
+     * @since 0.8.0
+     */
+    public static void dialogPickerFor(
+            @NonNull FragmentActivity activity,
+            @NonNull String key,
+            @NonNull Provider provider) {
         FragmentManager fragmentManager = activity.getSupportFragmentManager();
-        PickableDialogFragment picker =
-                (PickableDialogFragment) fragmentManager.findFragmentByTag(PickableDialogFragment.TAG);
-        if (null == picker) {
-            picker = PickableDialogFragment.newInstance();
+        String tag = tagOf(PickableDialogFragment.TAG, key);
+        if (isShown(activity, tag)) {
+            return;
         }
+        PickableDialogFragment picker = PickableDialogFragment.newInstance(key);
         picker.setProvider(provider);
-        picker.show(fragmentManager, PickableDialogFragment.TAG);
+        picker.show(fragmentManager, tag);
     }
 
     /**
@@ -90,10 +244,10 @@ public class ValuePicker {
      * @param provider
      * @since 0.1.0
      */
-    public static synchronized void bottomPickerFor(
+    public static void bottomPickerFor(
             @NonNull Fragment fragment,
             @NonNull Provider provider) {
-        bottomPickerFor(fragment.requireActivity(), provider);
+        bottomPickerFor(fragment.requireActivity(), DEFAULT_KEY, provider);
     }
 
     /**
@@ -103,17 +257,402 @@ public class ValuePicker {
      * @param provider
      * @since 0.1.0
      */
-    public static synchronized void bottomPickerFor(
+    public static void bottomPickerFor(
+            @NonNull FragmentActivity activity,
+            @NonNull Provider provider) {
+        bottomPickerFor(activity, DEFAULT_KEY, provider);
+    }
+
+    /**
+     * Launch bottom sheet picker of a given key.
+     * <p>
+     * Pickers of distinct keys are shown concurrently, launching a key already shown is ignored.
+     * To keep a picker across configuration changes, let its host(i.e activity or parent
+     * fragment) implement {@link ProviderFactory} to provide it again once recreated.
+     *
+     * @param activity
+     * @param key
+     * @param provider
+     * @since 0.8.0
+     */
+    public static void bottomPickerFor(
             @NonNull FragmentActivity activity,
+            @NonNull String key,
             @NonNull Provider provider) {
         FragmentManager fragmentManager = activity.getSupportFragmentManager();
-        PickableBottomSheetDialogFragment picker =
-                (PickableBottomSheetDialogFragment) fragmentManager.findFragmentByTag(PickableBottomSheetDialogFragment.TAG);
-        if (null == picker) {
-            picker = PickableBottomSheetDialogFragment.newInstance();
+        String tag = tagOf(PickableBottomSheetDialogFragment.TAG, key);
+        if (isShown(activity, tag)) {
+            return;
         }
+        PickableBottomSheetDialogFragment picker = PickableBottomSheetDialogFragment.newInstance(key);
         picker.setProvider(provider);
-        picker.show(fragmentManager, PickableBottomSheetDialogFragment.TAG);
+        picker.show(fragmentManager, tag);
+    }
+
+    /**
+     * Check if picker of a given tag is shown, otherwise release its stale session
+     *
+     * @param activity
+     * @param tag
+     * @return true if picker is already shown
+     */
+    private static boolean isShown(@NonNull FragmentActivity activity, @NonNull String tag) {
+        Fragment shown = activity.getSupportFragmentManager().findFragmentByTag(tag);
+        if (shown != null && !shown.isRemoving()) {
+            return true;
+        }
+        PickerSessions sessions = PickerSessions.of(activity);
+        if (sessions.contains(tag)) {
+            sessions.get(tag).clear();
+        }
+        return false;
+    }
+
+    @NonNull
+    static String tagOf(@NonNull String tag, @NonNull String key) {
+        return DEFAULT_KEY.equals(key) ? tag : tag + ":" + key;
+    }
+
+    @NonNull
+    static String keyOf(@NonNull Fragment fragment) {
+        Bundle args = fragment.getArguments();
+        String key = args != null ? args.getString(ARG_KEY, DEFAULT_KEY) : DEFAULT_KEY;
+        return key != null ? key : DEFAULT_KEY;
+    }
+
+    /**
+     * Obtain session of a given picker fragment, keyed by its tag so that pickers of
+     * distinct containers never share a session
+     *
+     * @param fragment
+     * @param tag
+     * @return
+     */
+    @NonNull
+    static PickerSession sessionOf(@NonNull Fragment fragment, @NonNull String tag) {
+        return PickerSessions.of(fragment.requireActivity()).get(tagOf(tag, keyOf(fragment)));
+    }
+
+    /**
+     * Obtain provider of a recreated picker fragment from its host
+     *
+     * @param fragment
+     * @return provider or null if host is not a {@link ProviderFactory}
+     */
+    @Nullable
+    static Provider providerOf(@NonNull Fragment fragment) {
+        Object host = fragment.getParentFragment();
+        if (!(host instanceof ProviderFactory)) {
+            host = fragment.getActivity();
+        }
+        if (host instanceof ProviderFactory) {
+            return ((ProviderFactory) host).createProvider(keyOf(fragment));
+        }
+        return null;
+    }
+
+    /**
+     * Prewarm picker of a given provider
+     *
+     * @param fragment
+     * @param provider
+     * @since 0.8.0
+     */
+    public static void prewarm(@NonNull Fragment fragment, @NonNull Provider provider) {
+        prewarm(fragment.requireActivity(), provider);
+    }
+
+    /**
+     * Prewarm picker of a given provider.
+     * <p>
+     * Start loading provider initial values and, once main thread is idle, pre-inflate
+     * rows so that next picker opened, for the same provider instance, renders immediately.
+     * Prewarmed values and rows are released, and values not yet taken by a picker are
+     * cancelled, when activity is destroyed.
+     *
+     * @param activity
+     * @param provider
+     * @since 0.8.0
+     */
+    @SuppressWarnings("unchecked")
+    public static void prewarm(@NonNull FragmentActivity activity, @NonNull Provider provider) {
+        // obtain activity prewarm
+        Prewarm prewarm = prewarms.get(activity);
+        if (prewarm == null) {
+            if (activity.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+                return;
+            }
+            prewarm = new Prewarm(activity);
+            prewarms.put(activity, prewarm);
+            activity.getLifecycle().addObserver(prewarm);
+        }
+
+        // start loading initial values, cursors are queried once shown
+        if (!(provider instanceof CursorProvider) && !prewarm.values.containsKey(provider)) {
+            Query query = Query.create();
+            CancellationTokenSource cancellation = new CancellationTokenSource();
+            Task<List<Pickable>> values = provider.getValues(query, cancellation.getToken());
+            prewarm.values.put(provider, PickableRow.prepare(provider, query, values));
+            prewarm.cancellations.put(provider, cancellation);
+        }
+
+        // pre-inflate rows on idle
+        final Prewarm idle = prewarm;
+        Looper.myQueue().addIdleHandler(() -> {
+            idle.inflate(DEFAULT_PREWARM_ROWS);
+            return false;
+        });
+    }
+
+    /**
+     * Take prewarmed initial values of a given provider
+     *
+     * @param provider
+     * @return
+     */
+    @Nullable
+    static Task<List<Pickable>> takePrewarmed(@NonNull Provider provider) {
+        for (Prewarm prewarm : prewarms.values()) {
+            Task<List<Pickable>> values = prewarm.values.remove(provider);
+            if (values != null) {
+                prewarm.cancellations.remove(provider);
+                return values;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtain prewarmed rows pool of a given context
+     *
+     * @param context
+     * @return
+     */
+    @Nullable
+    static RecyclerView.RecycledViewPool prewarmedPoolOf(@NonNull Context context) {
+        while (context instanceof ContextWrapper && !(context instanceof Activity)) {
+            context = ((ContextWrapper) context).getBaseContext();
+        }
+        Prewarm prewarm = prewarms.get(context);
+        return prewarm != null ? prewarm.pool : null;
+    }
+
+    /**
+     * Set background executor used to load, prepare and filter picker values
+     *
+     * @param executor
+     * @since 0.8.0
+     */
+    public static synchronized void setExecutor(@Nullable Executor executor) {
+        ValuePicker.executor = executor;
+    }
+
+    /**
+     * Obtain background executor used to prepare picker values
+     *
+     * @return
+     * @since 0.8.0
+     */
+    @NonNull
+    public static synchronized Executor getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor();
+        }
+        return executor;
+    }
+
+    /**
+     * Register listener to receive picker metrics
+     *
+     * @param metrics metrics listener or null to stop receiving metrics
+     * @since 0.8.0
+     */
+    public static void setMetrics(@Nullable PickerMetrics metrics) {
+        ValuePicker.metrics = metrics != null ? metrics : PickerMetrics.NOOP;
+    }
+
+    /**
+     * Obtain registered picker metrics listener
+     *
+     * @return
+     * @since 0.8.0
+     */
+    @NonNull
+    public static PickerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Set how picker rows are created, applies to rows created afterwards
+     *
+     * @param rowStyle
+     * @since 0.8.0
+     */
+    public static void setRowStyle(@NonNull RowStyle rowStyle) {
+        ValuePicker.rowStyle = rowStyle;
+    }
+
+    @NonNull
+    public static RowStyle getRowStyle() {
+        return rowStyle;
+    }
+
+    /**
+     * Obtain shared letter avatar and colour cache
+     *
+     * @return
+     * @since 0.8.0
+     */
+    @NonNull
+    public static AvatarCache getAvatarCache() {
+        return avatars;
+    }
+
+    /**
+     * Obtain search text of a given query
+     *
+     * @param query
+     * @return trimmed search text or empty string
+     * @since 0.8.0
+     */
+    @NonNull
+    public static String textOf(@Nullable Query query) {
+        String q = query != null ? query.getQ() : null;
+        return Common.Strings.isEmpty(q) ? "" : q.trim();
+    }
+
+    /**
+     * Obtain exact search text of a given query, untrimmed and case preserved, as
+     * providers may tell apart queries differing only by case or spacing
+     *
+     * @param query
+     * @return
+     */
+    @NonNull
+    static String searchKeyOf(@Nullable Query query) {
+        String q = query != null ? query.getQ() : null;
+        return q != null ? q : "";
+    }
+
+    /**
+     * Picker behaviour while values of a new query are loading
+     *
+     * @since 0.8.0
+     */
+    public enum LoadingMode {
+        /**
+         * Replace displayed values with loading state
+         */
+        REPLACE,
+
+        /**
+         * Keep displayed values visible and show progress
+         */
+        KEEP,
+
+        /**
+         * Keep displayed values visible, filtered by new query, and show progress
+         */
+        FILTER
+    }
+
+    /**
+     * Picker row implementation
+     *
+     * @since 0.8.0
+     */
+    public enum RowStyle {
+        /**
+         * Rows inflated from {@code item_pickable} layout
+         */
+        LAYOUT,
+
+        /**
+         * Rows drawn by a single {@link PickableItemView}, not yet measured against {@link #LAYOUT}
+         */
+        FLAT
+    }
+
+    /**
+     * Interface definition for picker metrics listener.
+     * <p>
+     * All callbacks default to no-op and are invoked on the main thread, implement
+     * those of interest and register through {@link ValuePicker#setMetrics(PickerMetrics)}.
+     *
+     * @since 0.8.0
+     */
+    public interface PickerMetrics {
+        String CACHE_QUERIES = "queries";
+        String CACHE_AVATARS = "avatars";
+
+        PickerMetrics NOOP = new PickerMetrics() {
+        };
+
+        /**
+         * Invoked once first values of an opened picker are displayed
+         *
+         * @param provider
+         * @param millis   time since picker start
+         */
+        default void onFirstRow(@NonNull Provider provider, long millis) {
+        }
+
+        /**
+         * Invoked when provider values of a query are loaded and prepared
+         *
+         * @param provider
+         * @param query
+         * @param millis   provider latency
+         * @param size     number of values
+         */
+        default void onQuerySuccess(@NonNull Provider provider, @NonNull Query query, long millis, int size) {
+        }
+
+        /**
+         * Invoked when provider failed to load values of a query
+         *
+         * @param provider
+         * @param query
+         * @param millis   provider latency
+         * @param error
+         */
+        default void onQueryFailure(
+                @NonNull Provider provider, @NonNull Query query, long millis, @NonNull Exception error) {
+        }
+
+        /**
+         * Invoked when a query is superseded by a newer one
+         *
+         * @param provider
+         * @param query
+         * @param inFlight whether query was cancelled while loading or dropped while debouncing
+         */
+        default void onQueryDropped(@NonNull Provider provider, @NonNull Query query, boolean inFlight) {
+        }
+
+        /**
+         * Invoked when a submitted list is diffed and dispatched to the adapter
+         *
+         * @param millis time since list submission
+         * @param size   number of values
+         */
+        default void onListCommitted(long millis, int size) {
+        }
+
+        /**
+         * Invoked when a row is fully bound
+         */
+        default void onRowBound() {
+        }
+
+        /**
+         * Invoked on cache lookup
+         *
+         * @param cache cache name e.g {@link #CACHE_QUERIES}
+         * @param hit   whether lookup is served from cache
+         */
+        default void onCacheLookup(@NonNull String cache, boolean hit) {
+        }
     }
 
     /**
@@ -179,454 +718,5327 @@ public class ValuePicker {
         Task<List<T>> getValues(@NonNull Query query);
 
         /**
-         * {@link Pickable} selection listener
+         * Cancellable {@link Pickable} values.
+         * <p>
+         * The token is cancelled once a newer query supersedes this one, providers
+         * that can abort their work(e.g network calls) should override this.
          *
-         * @param pickable
+         * @param query
+         * @param token
+         * @return
+         * @since 0.8.0
          */
         @NonNull
-        void onValueSelected(T pickable);
-    }
-
-    /**
-     * A {@link DiffableListAdapter} for {@link Pickable} values
-     *
-     * @since 0.1.0
-     */
-    public static class PickableAdapter extends DiffableListAdapter<Pickable, PickableAdapter.PickableViewHolder> {
-        private OnClickListener listener;
+        default Task<List<T>> getValues(@NonNull Query query, @NonNull CancellationToken token) {
+            return getValues(query);
+        }
 
-        public PickableAdapter(@NonNull OnClickListener listener) {
-            super();
-            this.listener = listener;
+        /**
+         * Specifies the quiet period, in milliseconds, to wait after the last
+         * keystroke before invoke search
+         *
+         * @return
+         * @since 0.8.0
+         */
+        default long getDebounce() {
+            return DEFAULT_DEBOUNCE;
         }
 
+        /**
+         * Specifies picker behaviour while values of a new query are loading
+         *
+         * @return
+         * @since 0.8.0
+         */
         @NonNull
-        @Override
-        public PickableViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-            Context context = parent.getContext();
-            LayoutInflater inflater = LayoutInflater.from(context);
-            View valueView = inflater.inflate(R.layout.item_pickable, parent, false);
-            return new PickableViewHolder(valueView);
+        default LoadingMode getLoadingMode() {
+            return LoadingMode.REPLACE;
         }
 
-        @Override
-        public void onBindViewHolder(@NonNull PickableViewHolder pickableViewHolder, int position) {
-            Pickable pickable = getItem(position);
-            pickableViewHolder.bind(pickable);
+        /**
+         * Prepare loaded {@link Pickable} values(e.g sort, de-duplicate) before they are displayed.
+         * <p>
+         * Invoked off the main thread on {@link ValuePicker#getExecutor()}.
+         *
+         * @param query
+         * @param values
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        default List<T> prepare(@NonNull Query query, @NonNull List<T> values) {
+            return values;
         }
 
         /**
-         * A ViewHolder for a {@link Pickable}
-         */
-        class PickableViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
+         * {@link Pickable} selection listener
+         *
+         * @param pickable
+         */
+        @NonNull
+        void onValueSelected(T pickable);
+    }
+
+    /**
+     * Interface definition for paged {@link Pickable} provider
+     *
+     * @since 0.8.0
+     */
+    public interface PagedProvider<T extends Pickable> extends Provider<T> {
+        /**
+         * {@link Pickable} values of a given page
+         *
+         * @param query
+         * @param page  zero based page index
+         * @param token
+         * @return
+         */
+        @NonNull
+        Task<List<T>> getValues(@NonNull Query query, int page, @NonNull CancellationToken token);
+
+        @NonNull
+        @Override
+        default Task<List<T>> getValues(@NonNull Query query) {
+            return getValues(query, 0, new CancellationTokenSource().getToken());
+        }
+
+        @NonNull
+        @Override
+        default Task<List<T>> getValues(@NonNull Query query, @NonNull CancellationToken token) {
+            return getValues(query, 0, token);
+        }
+
+        /**
+         * Specifies the number of values per page, a shorter page marks the end of values
+         *
+         * @return
+         */
+        default int getPageSize() {
+            return DEFAULT_PAGE_SIZE;
+        }
+
+        /**
+         * Specifies the maximum number of pages to keep in memory
+         *
+         * @return
+         */
+        default int getMaxPages() {
+            return DEFAULT_MAX_PAGES;
+        }
+    }
+
+    /**
+     * Interface definition for multiple selections {@link Pickable} provider
+     *
+     * @since 0.8.0
+     */
+    public interface MultiProvider<T extends Pickable> extends Provider<T> {
+        /**
+         * {@link Pickable} values selected before picker is shown
+         *
+         * @return
+         */
+        @NonNull
+        default List<T> getSelectedValues() {
+            return Collections.emptyList();
+        }
+
+        /**
+         * {@link Pickable} selections listener
+         *
+         * @param pickables selected values, in selection order
+         */
+        void onValuesSelected(@NonNull List<T> pickables);
+
+        @NonNull
+        @Override
+        default void onValueSelected(T pickable) {
+            onValuesSelected(Collections.singletonList(pickable));
+        }
+    }
+
+    /**
+     * Interface definition for hierarchical {@link Pickable} provider(e.g region, district, facility).
+     * <p>
+     * {@link #getValues(Query)} provides top level values, values with children are drilled
+     * into when clicked and only leaf values are delivered to {@link #onValueSelected(Pickable)}.
+     * Children of visited values are cached, so navigating back up or revisiting a sibling
+     * renders without loading again.
+     *
+     * @since 0.8.0
+     */
+    public interface TreeProvider<T extends Pickable> extends Provider<T> {
+        /**
+         * Check if a given value has children to drill into
+         *
+         * @param pickable
+         * @return
+         */
+        boolean hasChildren(@NonNull T pickable);
+
+        /**
+         * {@link Pickable} children of a given parent
+         *
+         * @param parent
+         * @param query
+         * @param token
+         * @return
+         */
+        @NonNull
+        Task<List<T>> getChildren(@NonNull T parent, @NonNull Query query, @NonNull CancellationToken token);
+
+        /**
+         * Specifies the maximum number of visited values whose children are cached
+         *
+         * @return
+         */
+        default int getLevelCacheSize() {
+            return DEFAULT_LEVEL_CACHE_SIZE;
+        }
+    }
+
+    /**
+     * Interface definition for streaming {@link Pickable} provider.
+     * <p>
+     * Values are emitted in batches as they become available(e.g cursor rows, network
+     * pages or parsed chunks) and picker displays them progressively, coalescing batches
+     * emitted within a single frame into one list update.
+     *
+     * @since 0.8.0
+     */
+    public interface StreamingProvider<T extends Pickable> extends Provider<T> {
+        /**
+         * Stream {@link Pickable} values of a given query.
+         * <p>
+         * Emitter may be invoked from any thread, streaming should stop once token
+         * is cancelled and must end with either {@link Emitter#onComplete()}
+         * or {@link Emitter#onError(Exception)}.
+         *
+         * @param query
+         * @param token
+         * @param emitter
+         */
+        void stream(@NonNull Query query, @NonNull CancellationToken token, @NonNull Emitter<T> emitter);
+
+        @NonNull
+        @Override
+        default Task<List<T>> getValues(@NonNull Query query) {
+            return getValues(query, new CancellationTokenSource().getToken());
+        }
+
+        @NonNull
+        @Override
+        default Task<List<T>> getValues(@NonNull Query query, @NonNull CancellationToken token) {
+            final TaskCompletionSource<List<T>> source = new TaskCompletionSource<>(token);
+            final List<T> values = new ArrayList<>();
+            stream(query, token, new Emitter<T>() {
+                @Override
+                public void onBatch(@NonNull List<T> batch) {
+                    synchronized (values) {
+                        values.addAll(batch);
+                    }
+                }
+
+                @Override
+                public void onReplace(@NonNull List<T> replacement) {
+                    synchronized (values) {
+                        values.clear();
+                        values.addAll(replacement);
+                    }
+                }
+
+                @Override
+                public void onComplete() {
+                    synchronized (values) {
+                        source.trySetResult(new ArrayList<>(values));
+                    }
+                }
+
+                @Override
+                public void onError(@NonNull Exception error) {
+                    source.trySetException(error);
+                }
+            });
+            return source.getTask();
+        }
+
+        /**
+         * Interface definition for receiver of streamed {@link Pickable} values
+         *
+         * @since 0.8.0
+         */
+        interface Emitter<T extends Pickable> {
+            void onBatch(@NonNull List<T> batch);
+
+            /**
+             * Replace all values emitted so far, e.g once fresh values replace stale ones
+             *
+             * @param values
+             */
+            void onReplace(@NonNull List<T> values);
+
+            void onComplete();
+
+            void onError(@NonNull Exception error);
+        }
+    }
+
+    /**
+     * Interface definition for callbacks to be invoked when
+     * {@link PickableAdapter} nears either end of its values.
+     *
+     * @since 0.8.0
+     */
+    public interface OnLoadMoreListener {
+        void onLoadNext();
+
+        void onLoadPrevious();
+    }
+
+    /**
+     * A {@link DiffableListAdapter} for {@link Pickable} values
+     *
+     * @since 0.1.0
+     */
+    public static class PickableAdapter extends DiffableListAdapter<Pickable, PickableAdapter.PickableViewHolder> {
+        static final Object PAYLOAD_SELECTION = new Object();
+
+        private OnClickListener listener;
+        private OnLoadMoreListener loadMoreListener;
+        private SelectionSet selection;
+        private int prefetchDistance = DEFAULT_PREFETCH_DISTANCE;
+        RowText rowText;
+
+        public PickableAdapter(@NonNull OnClickListener listener) {
+            super();
+            this.listener = listener;
+        }
+
+        /**
+         * Set listener to be invoked when bound rows near either end of values
+         *
+         * @param loadMoreListener
+         * @since 0.8.0
+         */
+        public void setOnLoadMoreListener(@Nullable OnLoadMoreListener loadMoreListener) {
+            this.loadMoreListener = loadMoreListener;
+        }
+
+        /**
+         * Set number of rows, from either list end, at which more values are requested
+         *
+         * @param prefetchDistance
+         * @since 0.8.0
+         */
+        public void setPrefetchDistance(int prefetchDistance) {
+            this.prefetchDistance = prefetchDistance;
+        }
+
+        /**
+         * Set selection to highlight bound rows from
+         *
+         * @param selection
+         * @since 0.8.0
+         */
+        public void setSelection(@Nullable SelectionSet selection) {
+            this.selection = selection;
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        }
+
+        /**
+         * Rebind selection state of row of a given pickable only
+         *
+         * @param pickable
+         * @since 0.8.0
+         */
+        public void notifySelectionChanged(@NonNull Pickable pickable) {
+            String objectId = pickable.getObjectId();
+            List<Pickable> values = getCurrentList();
+            for (int position = 0; position < values.size(); position++) {
+                if (objectId.equals(values.get(position).getObjectId())) {
+                    notifyItemChanged(position, PAYLOAD_SELECTION);
+                }
+            }
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            return rowStyle.ordinal();
+        }
+
+        @NonNull
+        @Override
+        public PickableViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            return PickableViewHolder.create(parent, viewType);
+        }
+
+        @Override
+        public void onBindViewHolder(
+                @NonNull PickableViewHolder pickableViewHolder, int position, @NonNull List<Object> payloads) {
+            // partially bind selection changes
+            if (!payloads.isEmpty() && payloads.contains(PAYLOAD_SELECTION)) {
+                pickableViewHolder.bindSelection(selection);
+                return;
+            }
+            onBindViewHolder(pickableViewHolder, position);
+        }
+
+        @Override
+        public void submitList(@Nullable List<Pickable> list) {
+            if (metrics == PickerMetrics.NOOP) {
+                super.submitList(list);
+                return;
+            }
+
+            // measure diff and dispatch
+            final long start = SystemClock.elapsedRealtime();
+            final int size = list != null ? list.size() : 0;
+            super.submitList(list, () -> metrics.onListCommitted(SystemClock.elapsedRealtime() - start, size));
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull PickableViewHolder pickableViewHolder, int position) {
+            Pickable pickable = getItem(position);
+            pickableViewHolder.bind(pickable, listener);
+            pickableViewHolder.bindSelection(selection);
+            metrics.onRowBound();
+
+            // prefetch next or previous page
+            if (loadMoreListener != null) {
+                if (position >= getItemCount() - 1 - prefetchDistance) {
+                    loadMoreListener.onLoadNext();
+                }
+                if (position <= prefetchDistance) {
+                    loadMoreListener.onLoadPrevious();
+                }
+            }
+        }
+
+        /**
+         * A ViewHolder for a {@link Pickable}.
+         * <p>
+         * Holds no reference to its adapter, so pre-inflated holders can be shared
+         * through a {@link RecyclerView.RecycledViewPool}.
+         */
+        public static class PickableViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
             AppCompatImageView ivItemValueAvatar;
             AppCompatTextView tvItemValueName;
             AppCompatTextView tvItemValueDescription;
+            Pickable pickable;
+            OnClickListener listener;
+            CursorRow cursorRow;
+            final SpannableStringBuilder highlighted = new SpannableStringBuilder();
+            final List<StyleSpan> spans = new ArrayList<>();
+            final AvatarCache.LetterAvatar avatar = new AvatarCache.LetterAvatar();
+
+            PickableItemView pvItemValue;
+            PrecomputedTextCompat.Params nameParams;
+            PrecomputedTextCompat.Params descriptionParams;
+
+            PickableViewHolder(@NonNull View valueView) {
+                super(valueView);
+                valueView.setOnClickListener(this);
+                if (valueView instanceof PickableItemView) {
+                    pvItemValue = (PickableItemView) valueView;
+                    return;
+                }
+                ivItemValueAvatar = valueView.findViewById(R.id.ivPickableItemAvatar);
+                tvItemValueName = valueView.findViewById(R.id.tvPickableItemName);
+                tvItemValueDescription = valueView.findViewById(R.id.tvPickableItemDescription);
+            }
+
+            /**
+             * Create row of a given {@link RowStyle} ordinal
+             *
+             * @param parent
+             * @param viewType
+             * @return
+             */
+            @NonNull
+            static PickableViewHolder create(@NonNull ViewGroup parent, int viewType) {
+                if (viewType == RowStyle.FLAT.ordinal()) {
+                    PickableItemView valueView = new PickableItemView(parent.getContext());
+                    valueView.setLayoutParams(new RecyclerView.LayoutParams(
+                            ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+                    return new PickableViewHolder(valueView);
+                }
+                LayoutInflater inflater = LayoutInflater.from(parent.getContext());
+                View valueView = inflater.inflate(R.layout.item_pickable, parent, false);
+                return new PickableViewHolder(valueView);
+            }
+
+            void bind(Pickable pickable, OnClickListener listener) {
+                PickableRow row = PickableRow.of(pickable);
+                this.pickable = pickable;
+                this.listener = listener;
+
+                // draw flat row
+                if (pvItemValue != null) {
+                    pvItemValue.bind(avatars.letterAvatarFor(avatar, row.letter, row.color),
+                            row.name, row.highlights, row.description);
+                    return;
+                }
+
+                // set avatar, rebinding row's own drawable
+                ivItemValueAvatar.setImageDrawable(avatars.letterAvatarFor(avatar, row.letter, row.color));
+
+                // set name and description, attaching layouts precomputed off the main thread
+                if (nameParams == null) {
+                    nameParams = TextViewCompat.getTextMetricsParams(tvItemValueName);
+                    descriptionParams = TextViewCompat.getTextMetricsParams(tvItemValueDescription);
+                }
+                if (!setPrecomputedText(tvItemValueName, nameParams, row.precomputedName)) {
+                    tvItemValueName.setText(row.highlights == null ? row.name : highlight(row));
+                }
+                if (!setPrecomputedText(tvItemValueDescription, descriptionParams, row.precomputedDescription)) {
+                    tvItemValueDescription.setText(row.description);
+                }
+            }
+
+            private static boolean setPrecomputedText(@NonNull AppCompatTextView view,
+                                                      @NonNull PrecomputedTextCompat.Params params,
+                                                      @Nullable PrecomputedTextCompat text) {
+                if (text == null || !params.equals(text.getParams())) {
+                    return false;
+                }
+                TextViewCompat.setPrecomputedText(view, text);
+                return true;
+            }
+
+            void bind(@NonNull CursorRow row, OnClickListener listener) {
+                this.pickable = row;
+                this.listener = listener;
+
+                // set avatar
+                char letter = row.name.sizeCopied > 0 ? row.name.data[0] : 0;
+                avatars.letterAvatarFor(avatar, letter, row.color);
+                CharArrayBuffer description = row.description.sizeCopied > 0 ? row.description : row.name;
+
+                // draw flat row
+                if (pvItemValue != null) {
+                    pvItemValue.bind(avatar, CharBuffer.wrap(row.name.data, 0, row.name.sizeCopied), null,
+                            CharBuffer.wrap(description.data, 0, description.sizeCopied));
+                    return;
+                }
+
+                // set name and description, straight from cursor buffers
+                ivItemValueAvatar.setImageDrawable(avatar);
+                tvItemValueName.setText(row.name.data, 0, row.name.sizeCopied);
+                tvItemValueDescription.setText(description.data, 0, description.sizeCopied);
+            }
+
+            private CharSequence highlight(@NonNull PickableRow row) {
+                // reuse builder and spans, text view keeps a copy
+                highlighted.clearSpans();
+                highlighted.clear();
+                highlighted.append(row.name);
+                int length = row.name.length();
+                for (int i = 0; i + 1 < row.highlights.length; i += 2) {
+                    int start = Math.min(row.highlights[i], length);
+                    int end = Math.min(row.highlights[i + 1], length);
+                    if (start >= end) {
+                        continue;
+                    }
+                    if (spans.size() <= i / 2) {
+                        spans.add(new StyleSpan(Typeface.BOLD));
+                    }
+                    highlighted.setSpan(spans.get(i / 2), start, end, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+                }
+                return highlighted;
+            }
+
+            void bindSelection(@Nullable SelectionSet selection) {
+                boolean selected = selection != null && pickable != null && selection.contains(pickable);
+                itemView.setActivated(selected);
+            }
+
+            @Override
+            public void onClick(View v) {
+                if (getAdapterPosition() == RecyclerView.NO_POSITION || pickable == null) {
+                    return;
+                }
+                if (listener != null) {
+                    listener.onClick(PickableRow.unwrap(pickable));
+                }
+            }
+        }
+    }
+
+    /**
+     * Flat picker row drawing letter avatar, name and description itself.
+     * <p>
+     * Replaces nested {@code item_pickable} layout with a single view, so rows are created
+     * without inflation and measured and laid out in a single pass. Enable through
+     * {@link ValuePicker#setRowStyle(RowStyle)}.
+     *
+     * @since 0.8.0
+     */
+    public static class PickableItemView extends View {
+        private static final String ELLIPSIS = "\u2026";
+
+        private final TextPaint namePaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        private final TextPaint highlightPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        private final TextPaint descriptionPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        private final Paint.FontMetricsInt nameMetrics;
+        private final Paint.FontMetricsInt descriptionMetrics;
+        private final int rowHeight;
+        private final int avatarSize;
+        private final int avatarMarginStart;
+        private final int textMarginStart;
+        private final int textMarginEnd;
+        private final int gutter;
+        private Drawable avatar;
+        private CharSequence name = "";
+        private CharSequence description = "";
+        private int[] highlights;
+
+        public PickableItemView(@NonNull Context context) {
+            this(context, null);
+        }
+
+        public PickableItemView(@NonNull Context context, @Nullable AttributeSet attrs) {
+            super(context, attrs);
+            rowHeight = getResources().getDimensionPixelSize(R.dimen.material_list_two_line_normal_height);
+            avatarSize = getResources().getDimensionPixelSize(R.dimen.material_list_avatar_size);
+            avatarMarginStart = getResources().getDimensionPixelSize(R.dimen.material_list_icon_first_position_margin_start);
+            textMarginStart = getResources().getDimensionPixelSize(R.dimen.material_list_text_second_position_edge_margin_start);
+            textMarginEnd = getResources().getDimensionPixelSize(R.dimen.material_list_text_last_position_margin_end);
+            gutter = getResources().getDimensionPixelSize(R.dimen.material_list_text_gutter);
+
+            // match item_pickable text appearances
+            applyTextAppearance(context, namePaint, R.style.TextAppearance_MaterialComponents_Body1);
+            applyTextAppearance(context, descriptionPaint, R.style.TextAppearance_MaterialComponents_Caption);
+            highlightPaint.set(namePaint);
+            highlightPaint.setTypeface(Typeface.create(namePaint.getTypeface(), Typeface.BOLD));
+            nameMetrics = namePaint.getFontMetricsInt();
+            descriptionMetrics = descriptionPaint.getFontMetricsInt();
+
+            // match item_pickable background and foreground
+            Drawable background = AppCompatResources.getDrawable(context, R.drawable.bg_pickable_item);
+            TypedValue value = new TypedValue();
+            if (background != null
+                    && context.getTheme().resolveAttribute(android.R.attr.selectableItemBackground, value, true)) {
+                Drawable foreground = AppCompatResources.getDrawable(context, value.resourceId);
+                background = foreground != null ? new LayerDrawable(new Drawable[]{background, foreground}) : background;
+            }
+            setBackground(background);
+            setFocusable(true);
+        }
+
+        /**
+         * Bind row values
+         *
+         * @param avatar
+         * @param name
+         * @param highlights matched name ranges, or null
+         * @param description
+         * @since 0.8.0
+         */
+        public void bind(@NonNull Drawable avatar, @NonNull CharSequence name,
+                         @Nullable int[] highlights, @NonNull CharSequence description) {
+            this.avatar = avatar;
+            this.name = name;
+            this.highlights = highlights;
+            this.description = description;
+            invalidate();
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            setMeasuredDimension(
+                    getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec),
+                    resolveSize(rowHeight, heightMeasureSpec));
+        }
+
+        @Override
+        protected void onDraw(Canvas canvas) {
+            boolean rtl = getLayoutDirection() == LAYOUT_DIRECTION_RTL;
+            int width = getWidth();
+            int height = getHeight();
+
+            // draw avatar
+            if (avatar != null) {
+                int left = rtl ? width - avatarMarginStart - avatarSize : avatarMarginStart;
+                int top = (height - avatarSize) / 2;
+                avatar.setBounds(left, top, left + avatarSize, top + avatarSize);
+                avatar.draw(canvas);
+            }
+
+            // draw name and description lines, centered vertically
+            int nameHeight = nameMetrics.descent - nameMetrics.ascent;
+            int descriptionHeight = descriptionMetrics.descent - descriptionMetrics.ascent;
+            int top = (height - nameHeight - gutter - descriptionHeight) / 2;
+            int available = width - textMarginStart - textMarginEnd;
+            drawLine(canvas, name, highlights, top - nameMetrics.ascent, available, rtl, namePaint, highlightPaint);
+            drawLine(canvas, description, null, top + nameHeight + gutter - descriptionMetrics.ascent,
+                    available, rtl, descriptionPaint, descriptionPaint);
+        }
+
+        @Override
+        public void onInitializeAccessibilityNodeInfo(AccessibilityNodeInfo info) {
+            super.onInitializeAccessibilityNodeInfo(info);
+            info.setText(name + ", " + description);
+        }
+
+        private void drawLine(@NonNull Canvas canvas, @NonNull CharSequence text, @Nullable int[] highlights,
+                              float baseline, int available, boolean rtl,
+                              @NonNull TextPaint paint, @NonNull TextPaint highlight) {
+            int end = text.length();
+            if (end == 0 || available <= 0) {
+                return;
+            }
+
+            // ellipsize overflowing text
+            float width = measure(text, highlights, end, paint, highlight);
+            boolean ellipsize = width > available;
+            if (ellipsize) {
+                float ellipsisWidth = paint.measureText(ELLIPSIS);
+                end = fit(text, highlights, available - ellipsisWidth, paint, highlight);
+                width = measure(text, highlights, end, paint, highlight) + ellipsisWidth;
+            }
+
+            // draw plain and highlighted segments
+            float x = rtl ? getWidth() - textMarginStart - width : textMarginStart;
+            for (int start = 0; start < end; ) {
+                int segmentEnd = segmentEnd(highlights, start, end);
+                TextPaint segmentPaint = isHighlighted(highlights, start) ? highlight : paint;
+                canvas.drawText(text, start, segmentEnd, x, baseline, segmentPaint);
+                x += segmentPaint.measureText(text, start, segmentEnd);
+                start = segmentEnd;
+            }
+            if (ellipsize) {
+                canvas.drawText(ELLIPSIS, x, baseline, paint);
+            }
+        }
+
+        private static float measure(@NonNull CharSequence text, @Nullable int[] highlights, int end,
+                                     @NonNull TextPaint paint, @NonNull TextPaint highlight) {
+            float width = 0;
+            for (int start = 0; start < end; ) {
+                int segmentEnd = segmentEnd(highlights, start, end);
+                width += (isHighlighted(highlights, start) ? highlight : paint).measureText(text, start, segmentEnd);
+                start = segmentEnd;
+            }
+            return width;
+        }
+
+        private static int fit(@NonNull CharSequence text, @Nullable int[] highlights, float available,
+                               @NonNull TextPaint paint, @NonNull TextPaint highlight) {
+            int end = text.length();
+            for (int start = 0; start < end; ) {
+                int segmentEnd = segmentEnd(highlights, start, end);
+                TextPaint segmentPaint = isHighlighted(highlights, start) ? highlight : paint;
+                int fitted = segmentPaint.breakText(text, start, segmentEnd, true, Math.max(available, 0), null);
+                if (fitted < segmentEnd - start) {
+                    return start + fitted;
+                }
+                available -= segmentPaint.measureText(text, start, segmentEnd);
+                start = segmentEnd;
+            }
+            return end;
+        }
+
+        private static int segmentEnd(@Nullable int[] highlights, int position, int end) {
+            if (highlights != null) {
+                for (int i = 0; i + 1 < highlights.length; i += 2) {
+                    if (position < highlights[i]) {
+                        return Math.min(highlights[i], end);
+                    }
+                    if (position < highlights[i + 1]) {
+                        return Math.min(highlights[i + 1], end);
+                    }
+                }
+            }
+            return end;
+        }
+
+        private static boolean isHighlighted(@Nullable int[] highlights, int position) {
+            if (highlights != null) {
+                for (int i = 0; i + 1 < highlights.length; i += 2) {
+                    if (position >= highlights[i] && position < highlights[i + 1]) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static void applyTextAppearance(@NonNull Context context, @NonNull TextPaint paint, int style) {
+            // attributes sorted as required by obtainStyledAttributes
+            TypedArray appearance = context.obtainStyledAttributes(style, new int[]{
+                    android.R.attr.textSize, android.R.attr.textColor, android.R.attr.letterSpacing});
+            try {
+                paint.setTextSize(appearance.getDimension(0, paint.getTextSize()));
+                paint.setColor(appearance.getColor(1, paint.getColor()));
+                paint.setLetterSpacing(appearance.getFloat(2, 0));
+            } finally {
+                appearance.recycle();
+            }
+        }
+    }
+
+    /**
+     * Picker controller shared by all picker presentations.
+     * <p>
+     * Owns picker views, query state, search pipeline, paging and adapter binding,
+     * containers(e.g dialogs) only inflate, show and dismiss it.
+     *
+     * @since 0.8.0
+     */
+    public static class PickerController implements OnClickListener, SearchPipeline.Listener {
+        private final Host host;
+        private StateLayout slPickableList;
+        private ProgressBar pbPickableList;
+        private SearchView svPickableListSearch;
+        private AppCompatTextView etPickableListTitle;
+        private RecyclerView rvPickableListValues;
+        private View btnPickableListDone;
+        private Query query = Query.create();
+        private Provider provider;
+        private PickableAdapter adapter;
+        private PickableCursorAdapter cursorAdapter;
+        private SearchPipeline pipeline;
+        private SearchView.OnQueryTextListener queryListener;
+        private Pager pager;
+        private SelectionSet selection;
+        private Pickable parent;
+        private List<Level> levels = new ArrayList<>();
+        private Map<String, Provider> children;
+        private PickerSession session;
+        private String contentText;
+        private int narrowing = 0;
+        private boolean hasContent = false;
+        private long startTime = -1;
+
+        public PickerController(@NonNull Host host) {
+            this.host = host;
+        }
+
+        /**
+         * Inflate and bind picker views
+         *
+         * @param inflater
+         * @param container
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        public View createView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container) {
+            // inflate
+            View view = inflater.inflate(R.layout.list_pickable, container, false);
+
+            // bind views
+            bindView(view);
+
+            // return views
+            return view;
+        }
+
+        /**
+         * Bind already inflated picker views
+         *
+         * @param view
+         * @since 0.8.0
+         */
+        public void bindView(@NonNull View view) {
+            // setup state layout
+            slPickableList = view.findViewById(R.id.slPickableList);
+            pbPickableList = view.findViewById(R.id.pbPickableList);
+            hasContent = false;
+
+            // obtain required views
+            svPickableListSearch = view.findViewById(R.id.svPickableListSearch);
+            rvPickableListValues = view.findViewById(R.id.content_pickable);
+            etPickableListTitle = view.findViewById(R.id.etPickableListTitle);
+            btnPickableListDone = view.findViewById(R.id.btnPickableListDone);
+            btnPickableListDone.setOnClickListener(v -> done());
+
+            // share prewarmed rows
+            RecyclerView.RecycledViewPool pool = prewarmedPoolOf(view.getContext());
+            if (pool != null) {
+                rvPickableListValues.setRecycledViewPool(pool);
+            }
+
+            // bind adapters
+            adapter = new PickableAdapter(this);
+            rvPickableListValues.setAdapter(adapter);
+
+            // capture row text metrics, to precompute row text off the main thread
+            if (rowStyle == RowStyle.LAYOUT) {
+                PickableAdapter.PickableViewHolder prototype =
+                        adapter.createViewHolder(rvPickableListValues, RowStyle.LAYOUT.ordinal());
+                adapter.rowText = new RowText(
+                        TextViewCompat.getTextMetricsParams(prototype.tvItemValueName),
+                        TextViewCompat.getTextMetricsParams(prototype.tvItemValueDescription));
+                rvPickableListValues.getRecycledViewPool().putRecycledView(prototype);
+            }
+        }
+
+        /**
+         * Bind provider to views and load its values
+         *
+         * @since 0.8.0
+         */
+        public void start() {
+            Context context = svPickableListSearch.getContext();
+            startTime = SystemClock.elapsedRealtime();
+
+            // set search hint
+            String searchHint = provider.getSearchHint();
+            if (Common.Strings.isEmpty(searchHint)) {
+                searchHint = context.getString(R.string.hint_list_values_search);
+            }
+            svPickableListSearch.setQueryHint(searchHint);
+            svPickableListSearch.setQuery(textOf(query), false);
+
+            // setup search pipeline
+            pipeline = new SearchPipeline(levelOf(parent), this);
+            pipeline.setRowText(adapter.rowText);
+
+            // setup paging
+            if (provider instanceof PagedProvider && !(provider instanceof TreeProvider)) {
+                pager = new Pager((PagedProvider) provider, adapter);
+            }
+            adapter.setOnLoadMoreListener(pager);
+
+            // setup multiple selections
+            if (provider instanceof MultiProvider) {
+                if (selection == null) {
+                    selection = new SelectionSet(((MultiProvider) provider).getSelectedValues());
+                }
+                btnPickableListDone.setVisibility(View.VISIBLE);
+            } else {
+                selection = null;
+                btnPickableListDone.setVisibility(View.GONE);
+            }
+            adapter.setSelection(selection);
+
+            // bind cursor rows in place of values
+            if (provider instanceof CursorProvider) {
+                cursorAdapter = new PickableCursorAdapter((CursorProvider) provider, this);
+                cursorAdapter.setSelection(selection);
+                rvPickableListValues.setAdapter(cursorAdapter);
+            } else if (cursorAdapter != null) {
+                cursorAdapter = null;
+                rvPickableListValues.setAdapter(adapter);
+            }
+
+            // Set SearchView QueryTextListener
+            queryListener = new SearchView.OnQueryTextListener() {
+                @Override
+                public boolean onQueryTextSubmit(String q) {
+                    dismissKeyboard();
+                    query = Common.Strings.isEmpty(q) ? Query.create() : Query.create(q);
+                    if (q.length() >= provider.getThreshold()) {
+                        pipeline.searchNow(query);
+                    } else {
+                        cancelSearch();
+                    }
+                    return true;
+                }
+
+                @Override
+                public boolean onQueryTextChange(String q) {
+                    query = Common.Strings.isEmpty(q) ? Query.create() : Query.create(q);
+                    if (q.length() >= provider.getThreshold()) {
+                        pipeline.search(query);
+                    } else {
+                        cancelSearch();
+                    }
+                    return true;
+                }
+            };
+            svPickableListSearch.setOnQueryTextListener(queryListener);
+
+            // Set focus on the SearchView and open the keyboard
+            svPickableListSearch.setOnQueryTextFocusChangeListener((view, hasFocus) -> {
+                if (hasFocus) {
+                    showKeyboard(view.findFocus());
+                }
+            });
+
+            // set title
+            etPickableListTitle.setOnClickListener(v -> navigateUp());
+            bindTitle();
+
+            // bind recycler adapter & values, resuming session ones if any
+            if (!resume()) {
+                pipeline.searchNow(query);
+            }
+        }
+
+        /**
+         * Cancel pending and in-flight loads
+         *
+         * @since 0.8.0
+         */
+        public void stop() {
+            if (svPickableListSearch != null) {
+                svPickableListSearch.setOnQueryTextListener(null);
+            }
+            if (session != null) {
+                suspend();
+            }
+            if (pipeline != null) {
+                pipeline.cancel();
+            }
+            if (pager != null) {
+                pager.cancel();
+                pager = null;
+            }
+            if (cursorAdapter != null) {
+                cursorAdapter.swapCursor(null);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onClick(Pickable pickable) {
+            // drill into children
+            if (provider instanceof TreeProvider && ((TreeProvider) provider).hasChildren(pickable)) {
+                navigateDown(pickable);
+                return;
+            }
+
+            // toggle selection
+            if (selection != null) {
+                selection.toggle(pickable);
+                if (cursorAdapter != null) {
+                    cursorAdapter.notifySelectionChanged();
+                } else {
+                    adapter.notifySelectionChanged(pickable);
+                }
+                return;
+            }
+
+            dismissKeyboard();
+            Provider provider = this.provider;
+            host.dismiss();
+            if (provider != null) {
+                provider.onValueSelected(pickable);
+            }
+            clear();
+        }
+
+        @Override
+        public void onSearchStart(@NonNull Query query) {
+            narrowing++;
+            if (pager != null) {
+                pager.cancel();
+            }
+
+            // replace displayed values
+            LoadingMode mode = provider.getLoadingMode();
+            if (!hasContent || mode == LoadingMode.REPLACE) {
+                showState(false);
+                slPickableList.showLoading();
+                return;
+            }
+
+            // keep displayed values, narrowed off the main thread to extended query
+            pbPickableList.setVisibility(View.VISIBLE);
+            String text = Folding.fold(textOf(query));
+            if (mode == LoadingMode.FILTER && contentText != null && text.startsWith(contentText)) {
+                final int current = narrowing;
+                PickableRow.filter(adapter.getCurrentList(), text, adapter.rowText)
+                        .addOnSuccessListener(TaskExecutors.MAIN_THREAD, rows -> {
+                            if (current == narrowing) {
+                                adapter.submitList(rows);
+                            }
+                        });
+                contentText = text;
+            }
+        }
+
+        @Override
+        public void onSearchSuccess(@NonNull Query query, @NonNull List<Pickable> pickables) {
+            narrowing++;
+            if (pickables.isEmpty()) {
+                showState(false);
+                slPickableList.showEmpty();
+            } else {
+                if (pager != null) {
+                    pager.reset(query, pickables);
+                } else {
+                    adapter.submitList(pickables);
+                }
+                contentText = Folding.fold(textOf(query));
+                showState(true);
+                slPickableList.showContent();
+                reportFirstRow();
+            }
+        }
+
+        @Override
+        public void onSearchFailure(@NonNull Query query, @NonNull Exception error) {
+            narrowing++;
+            showState(false);
+            slPickableList.showError();
+        }
+
+        @Override
+        public void onSearchCursor(@NonNull Query query, @NonNull Cursor cursor) {
+            if (cursorAdapter == null) {
+                cursor.close();
+                return;
+            }
+            cursorAdapter.swapCursor(cursor);
+            if (cursor.getCount() == 0) {
+                showState(false);
+                slPickableList.showEmpty();
+            } else {
+                showState(true);
+                contentText = null;
+                slPickableList.showContent();
+                reportFirstRow();
+            }
+        }
+
+        @Override
+        public void onSearchProgress(@NonNull Query query, @NonNull List<Pickable> pickables) {
+            // show partial values, keep loading
+            narrowing++;
+            adapter.submitList(pickables);
+            hasContent = true;
+            contentText = null;
+            pbPickableList.setVisibility(View.VISIBLE);
+            slPickableList.showContent();
+            reportFirstRow();
+        }
+
+        /**
+         * Cancel pending and in-flight searches, restoring values shown before them
+         */
+        private void cancelSearch() {
+            if (!pipeline.isSearching()) {
+                return;
+            }
+            narrowing++;
+            pipeline.cancel();
+            RecyclerView.Adapter shown = cursorAdapter != null ? cursorAdapter : adapter;
+            showState(shown.getItemCount() > 0);
+            if (hasContent) {
+                slPickableList.showContent();
+            } else {
+                slPickableList.showEmpty();
+            }
+        }
+
+        /**
+         * Keep picker state and values in session, for a recreated host to resume
+         */
+        private void suspend() {
+            session.query = query;
+            session.selection = selection;
+            session.parent = parent;
+            session.levels = levels;
+            session.shown = null;
+            if (session.inFlight != null) {
+                session.inFlight.cancel();
+            }
+            session.inFlight = null;
+            if (pipeline == null) {
+                return;
+            }
+
+            // keep in-flight values load, or values shown once settled
+            session.inFlight = pipeline.detach();
+            if (session.inFlight == null && hasContent && !pipeline.isSearching() && cursorAdapter == null) {
+                RecyclerView.LayoutManager layoutManager = rvPickableListValues.getLayoutManager();
+                Parcelable state = layoutManager != null ? layoutManager.onSaveInstanceState() : null;
+                session.shown = new Level(parent, query, adapter.getCurrentList(), true, contentText, state);
+            }
+        }
+
+        /**
+         * Show values kept in session, instead of searching them again
+         *
+         * @return true if session values were resumed
+         */
+        private boolean resume() {
+            if (session == null) {
+                return false;
+            }
+            SearchPipeline.Detached inFlight = session.inFlight;
+            Level shown = session.shown;
+            session.inFlight = null;
+            session.shown = null;
+
+            // join in-flight values load
+            if (inFlight != null) {
+                if (pager == null && cursorAdapter == null) {
+                    pipeline.attach(inFlight);
+                    return true;
+                }
+                inFlight.cancel();
+                return false;
+            }
+
+            // show settled values
+            if (shown == null || pager != null || cursorAdapter != null) {
+                return false;
+            }
+            RecyclerView.LayoutManager layoutManager = rvPickableListValues.getLayoutManager();
+            adapter.submitList(shown.values, () -> {
+                if (layoutManager != null && shown.state != null) {
+                    layoutManager.onRestoreInstanceState(shown.state);
+                }
+            });
+            showState(true);
+            contentText = shown.contentText;
+            slPickableList.showContent();
+            reportFirstRow();
+            return true;
+        }
+
+        private void reportFirstRow() {
+            if (startTime < 0 || metrics == PickerMetrics.NOOP) {
+                startTime = -1;
+                return;
+            }
+            final long start = startTime;
+            final Provider provider = this.provider;
+            startTime = -1;
+            rvPickableListValues.post(() -> metrics.onFirstRow(provider, SystemClock.elapsedRealtime() - start));
+        }
+
+        private void showState(boolean hasContent) {
+            this.hasContent = hasContent;
+            if (!hasContent) {
+                contentText = null;
+            }
+            pbPickableList.setVisibility(View.GONE);
+        }
+
+        /**
+         * Show children of a given parent, current level is kept for {@link #navigateUp()}
+         *
+         * @param parent
+         * @since 0.8.0
+         */
+        public void navigateDown(@NonNull Pickable parent) {
+            // keep current level
+            RecyclerView.LayoutManager layoutManager = rvPickableListValues.getLayoutManager();
+            Parcelable state = layoutManager != null ? layoutManager.onSaveInstanceState() : null;
+            levels.add(new Level(this.parent, query, adapter.getCurrentList(), hasContent, contentText, state));
+
+            // search children
+            this.parent = parent;
+            showLevel(Query.create());
+            pipeline.searchNow(query);
+        }
+
+        /**
+         * Show previous level, instantly from kept values
+         *
+         * @return true if there was a previous level to show
+         * @since 0.8.0
+         */
+        public boolean navigateUp() {
+            if (levels.isEmpty() || pipeline == null) {
+                return false;
+            }
+
+            // restore kept level
+            Level level = levels.remove(levels.size() - 1);
+            this.parent = level.parent;
+            showLevel(level.query);
+            if (!level.hasContent) {
+                pipeline.searchNow(query);
+                return true;
+            }
+            RecyclerView.LayoutManager layoutManager = rvPickableListValues.getLayoutManager();
+            adapter.submitList(level.values, () -> {
+                if (layoutManager != null && level.state != null) {
+                    layoutManager.onRestoreInstanceState(level.state);
+                }
+            });
+            showState(true);
+            contentText = level.contentText;
+            slPickableList.showContent();
+            return true;
+        }
+
+        /**
+         * Show previous level once back key is released
+         *
+         * @param keyCode
+         * @param event
+         * @return true if back key was handled
+         * @since 0.8.0
+         */
+        public boolean onBackKey(int keyCode, @NonNull KeyEvent event) {
+            return keyCode == KeyEvent.KEYCODE_BACK && event.getAction() == KeyEvent.ACTION_UP && navigateUp();
+        }
+
+        private void showLevel(@NonNull Query query) {
+            narrowing++;
+            pipeline.cancel();
+            pipeline = new SearchPipeline(levelOf(parent), this);
+            pipeline.setRowText(adapter.rowText);
+
+            // restore level query without searching it
+            this.query = query;
+            svPickableListSearch.setOnQueryTextListener(null);
+            svPickableListSearch.setQuery(textOf(query), false);
+            svPickableListSearch.setOnQueryTextListener(queryListener);
+            bindTitle();
+        }
+
+        private void bindTitle() {
+            if (parent != null) {
+                etPickableListTitle.setText(parent.getName());
+                etPickableListTitle.setCompoundDrawablesRelativeWithIntrinsicBounds(R.drawable.ic_pickable_up, 0, 0, 0);
+                etPickableListTitle.setVisibility(View.VISIBLE);
+                return;
+            }
+            String title = provider.getTitle();
+            if (Common.Strings.isEmpty(title)) {
+                title = etPickableListTitle.getContext().getString(R.string.text_pickable_list_title);
+            }
+            etPickableListTitle.setText(title);
+            etPickableListTitle.setCompoundDrawablesRelativeWithIntrinsicBounds(0, 0, 0, 0);
+            etPickableListTitle.setVisibility(levels.isEmpty() ? View.GONE : View.VISIBLE);
+        }
+
+        @NonNull
+        @SuppressWarnings("unchecked")
+        private Provider levelOf(@Nullable Pickable parent) {
+            if (parent == null || !(provider instanceof TreeProvider)) {
+                return provider;
+            }
+
+            // reuse cached children of visited parents
+            final TreeProvider tree = (TreeProvider) provider;
+            if (children == null) {
+                final int maxSize = tree.getLevelCacheSize();
+                children = new LinkedHashMap<String, Provider>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Provider> eldest) {
+                        return size() > maxSize;
+                    }
+                };
+            }
+            Provider level = children.get(parent.getObjectId());
+            if (level == null) {
+                level = new CachingProvider<>(new ChildrenProvider<>(tree, parent));
+                children.put(parent.getObjectId(), level);
+            }
+            return level;
+        }
+
+        /**
+         * Finish multiple selections and notify provider
+         *
+         * @since 0.8.0
+         */
+        @SuppressWarnings("unchecked")
+        public void done() {
+            dismissKeyboard();
+            Provider provider = this.provider;
+            SelectionSet selection = this.selection;
+            host.dismiss();
+            if (provider instanceof MultiProvider && selection != null) {
+                ((MultiProvider) provider).onValuesSelected(selection.getValues());
+            }
+            clear();
+        }
+
+        public void setProvider(Provider provider) {
+            this.query = Query.create();
+            this.provider = provider;
+            this.selection = null;
+            this.parent = null;
+            this.levels = new ArrayList<>();
+            this.children = null;
+        }
+
+        /**
+         * Keep picker state in a given session.
+         * <p>
+         * Query, selections, levels and values kept in session are resumed on {@link #start()}
+         * with current provider, session never holds a provider.
+         *
+         * @param session
+         * @since 0.8.0
+         */
+        public void setSession(@NonNull PickerSession session) {
+            this.session = session;
+            this.query = session.query;
+            this.selection = session.selection;
+            this.parent = session.parent;
+            this.levels = session.levels;
+            this.children = null;
+        }
+
+        @Nullable
+        public Provider getProvider() {
+            return provider;
+        }
+
+        /**
+         * Release picker state, session and values once picker is done
+         *
+         * @since 0.8.0
+         */
+        public void clear() {
+            // drop pending and in-flight loads before releasing provider
+            if (svPickableListSearch != null) {
+                svPickableListSearch.setOnQueryTextListener(null);
+            }
+            if (pipeline != null) {
+                pipeline.cancel();
+            }
+            if (pager != null) {
+                pager.cancel();
+                pager = null;
+            }
+            if (session != null) {
+                session.clear();
+                session = null;
+            }
+            setProvider(null);
+        }
+
+        /**
+         * Hide soft keyboard if shown
+         *
+         * @since 0.8.0
+         */
+        public void dismissKeyboard() {
+            if (svPickableListSearch == null) {
+                return;
+            }
+            InputMethodManager imm = (InputMethodManager) svPickableListSearch.getContext()
+                    .getSystemService(Context.INPUT_METHOD_SERVICE);
+            if (imm != null) {
+                imm.hideSoftInputFromWindow(svPickableListSearch.getWindowToken(), 0);
+            }
+        }
+
+        private void showKeyboard(View view) {
+            InputMethodManager imm =
+                    (InputMethodManager) view.getContext().getSystemService(Context.INPUT_METHOD_SERVICE);
+            if (imm != null) {
+                imm.showSoftInput(view, InputMethodManager.SHOW_FORCED);
+            }
+        }
+
+        /**
+         * Interface definition for a container presenting a {@link PickerController}
+         *
+         * @since 0.8.0
+         */
+        public interface Host {
+            void dismiss();
+        }
+
+        static class Level {
+            final Pickable parent;
+            final Query query;
+            final List<Pickable> values;
+            final boolean hasContent;
+            final String contentText;
+            final Parcelable state;
+
+            Level(Pickable parent, Query query, List<Pickable> values,
+                  boolean hasContent, String contentText, Parcelable state) {
+                this.parent = parent;
+                this.query = query;
+                this.values = values;
+                this.hasContent = hasContent;
+                this.contentText = contentText;
+                this.state = state;
+            }
+        }
+
+        private static class ChildrenProvider<T extends Pickable> implements Provider<T> {
+            private final TreeProvider<T> tree;
+            private final T parent;
+
+            ChildrenProvider(@NonNull TreeProvider<T> tree, @NonNull T parent) {
+                this.tree = tree;
+                this.parent = parent;
+            }
+
+            @Override
+            public String getTitle() {
+                return tree.getTitle();
+            }
+
+            @Override
+            public String getSearchHint() {
+                return tree.getSearchHint();
+            }
+
+            @Override
+            public int getThreshold() {
+                return tree.getThreshold();
+            }
+
+            @Override
+            public long getDebounce() {
+                return tree.getDebounce();
+            }
+
+            @NonNull
+            @Override
+            public LoadingMode getLoadingMode() {
+                return tree.getLoadingMode();
+            }
+
+            @NonNull
+            @Override
+            public Task<List<T>> getValues(@NonNull Query query) {
+                return getValues(query, new CancellationTokenSource().getToken());
+            }
+
+            @NonNull
+            @Override
+            public Task<List<T>> getValues(@NonNull Query query, @NonNull CancellationToken token) {
+                return tree.getChildren(parent, query, token);
+            }
+
+            @NonNull
+            @Override
+            public List<T> prepare(@NonNull Query query, @NonNull List<T> values) {
+                return tree.prepare(query, values);
+            }
+
+            @NonNull
+            @Override
+            public void onValueSelected(T pickable) {
+                tree.onValueSelected(pickable);
+            }
+        }
+    }
+
+    /**
+     * Interface definition for a picker host(i.e activity or parent fragment) providing
+     * providers of its keyed pickers, so that pickers recreated after configuration
+     * changes are bound to current host instead of a destroyed one.
+     *
+     * @since 0.8.0
+     */
+    public interface ProviderFactory {
+        /**
+         * Create provider of a picker of a given key
+         *
+         * @param key
+         * @return provider or null to dismiss recreated picker
+         */
+        @Nullable
+        Provider createProvider(@NonNull String key);
+    }
+
+    /**
+     * Picker state kept across configuration changes, identified by a key.
+     * <p>
+     * Holds query, selections, visited levels and either shown or in-flight values, so
+     * that a recreated picker resumes without loading its values again. Providers, which
+     * usually capture their activity, are never kept, a recreated picker obtains one from
+     * its {@link ProviderFactory} host. Released once picker is done or its activity finishes.
+     *
+     * @since 0.8.0
+     */
+    public static class PickerSession {
+        private final PickerSessions sessions;
+        private final String key;
+        Query query = Query.create();
+        SelectionSet selection;
+        Pickable parent;
+        List<PickerController.Level> levels = new ArrayList<>();
+        PickerController.Level shown;
+        SearchPipeline.Detached inFlight;
+
+        PickerSession(@NonNull PickerSessions sessions, @NonNull String key) {
+            this.sessions = sessions;
+            this.key = key;
+        }
+
+        @NonNull
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Cancel in-flight values, release kept state and remove session
+         *
+         * @since 0.8.0
+         */
+        public void clear() {
+            if (inFlight != null) {
+                inFlight.cancel();
+            }
+            query = Query.create();
+            selection = null;
+            parent = null;
+            levels = new ArrayList<>();
+            shown = null;
+            inFlight = null;
+            sessions.remove(this);
+        }
+    }
+
+    /**
+     * {@link ViewModel} of an activity holding its {@link PickerSession}s
+     *
+     * @since 0.8.0
+     */
+    public static class PickerSessions extends ViewModel {
+        private final Map<String, PickerSession> sessions = new HashMap<>();
+
+        /**
+         * Obtain picker sessions of a given activity
+         *
+         * @param activity
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        public static PickerSessions of(@NonNull FragmentActivity activity) {
+            return new ViewModelProvider(activity).get(PickerSessions.class);
+        }
+
+        /**
+         * Obtain session of a given key, creating it if not exists
+         *
+         * @param key
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        public PickerSession get(@NonNull String key) {
+            PickerSession session = sessions.get(key);
+            if (session == null) {
+                session = new PickerSession(this, key);
+                sessions.put(key, session);
+            }
+            return session;
+        }
+
+        /**
+         * Check if a session of a given key exists
+         *
+         * @param key
+         * @return
+         * @since 0.8.0
+         */
+        public boolean contains(@NonNull String key) {
+            return sessions.containsKey(key);
+        }
+
+        public int size() {
+            return sessions.size();
+        }
+
+        void remove(@NonNull PickerSession session) {
+            if (sessions.get(session.getKey()) == session) {
+                sessions.remove(session.getKey());
+            }
+        }
+
+        @Override
+        protected void onCleared() {
+            for (PickerSession session : new ArrayList<>(sessions.values())) {
+                session.clear();
+            }
+        }
+    }
+
+    /**
+     * Inline picker view for {@link Pickable} values.
+     * <p>
+     * Keeps its inflated views, adapter and recycled rows between uses, so it can be
+     * shown and hidden instantly within a layout. Declare it in xml using
+     * {@code <view class="com.github.lykmapipo.picker.ValuePicker$PickerView" />}.
+     *
+     * @since 0.8.0
+     */
+    public static class PickerView extends FrameLayout implements PickerController.Host {
+        private final PickerController controller = new PickerController(this);
+
+        public PickerView(@NonNull Context context) {
+            this(context, null);
+        }
+
+        public PickerView(@NonNull Context context, @Nullable AttributeSet attrs) {
+            this(context, attrs, 0);
+        }
+
+        public PickerView(@NonNull Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+            super(context, attrs, defStyleAttr);
+            addView(controller.createView(LayoutInflater.from(context), this));
+        }
+
+        /**
+         * Show picker for a given provider
+         *
+         * @param provider
+         * @since 0.8.0
+         */
+        public void show(@NonNull Provider provider) {
+            controller.stop();
+            controller.setProvider(provider);
+            controller.start();
+            setVisibility(VISIBLE);
+        }
+
+        /**
+         * Hide picker, views are kept for next {@link #show(Provider)}
+         *
+         * @since 0.8.0
+         */
+        @Override
+        public void dismiss() {
+            controller.dismissKeyboard();
+            controller.stop();
+            setVisibility(GONE);
+        }
+
+        public boolean isShowing() {
+            return getVisibility() == VISIBLE && controller.getProvider() != null;
+        }
+
+        /**
+         * Show previous level of hierarchical values, call on back press
+         *
+         * @return true if there was a previous level to show
+         * @since 0.8.0
+         */
+        public boolean navigateUp() {
+            return isShowing() && controller.navigateUp();
+        }
+
+        @Override
+        protected void onDetachedFromWindow() {
+            controller.stop();
+            super.onDetachedFromWindow();
+        }
+    }
+
+    /**
+     * {@link DialogFragment} for {@link Pickable} values
+     */
+    public static class PickableDialogFragment extends DialogFragment
+            implements PickerController.Host {
+        public static final String TAG = PickableDialogFragment.class.getSimpleName();
+
+        private final PickerController controller = new PickerController(this);
+
+        public PickableDialogFragment() {
+        }
+
+        /**
+         * Instantiate new dialog picker in not exists
+         *
+         * @return
+         * @since 0.1.0
+         */
+        public static PickableDialogFragment newInstance() {
+            return newInstance(DEFAULT_KEY);
+        }
+
+        /**
+         * Instantiate new dialog picker of a given session key
+         *
+         * @param key
+         * @return
+         * @since 0.8.0
+         */
+        public static PickableDialogFragment newInstance(@NonNull String key) {
+            final Bundle args = new Bundle();
+            args.putString(ARG_KEY, key);
+            final PickableDialogFragment fragment = new PickableDialogFragment();
+            fragment.setArguments(args);
+            return fragment;
+        }
+
+        @Nullable
+        @Override
+        public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
+            return controller.createView(inflater, container);
+        }
+
+        @NonNull
+        @Override
+        public Dialog onCreateDialog(@Nullable Bundle savedInstanceState) {
+            // navigate up hierarchical values on back
+            Dialog dialog = super.onCreateDialog(savedInstanceState);
+            dialog.setOnKeyListener((d, keyCode, event) -> controller.onBackKey(keyCode, event));
+            return dialog;
+        }
+
+        @Override
+        public void onActivityCreated(@Nullable Bundle savedInstanceState) {
+            super.onActivityCreated(savedInstanceState);
+
+            // resume or start session, dismiss if its provider is gone(e.g recreated)
+            if (controller.getProvider() == null) {
+                controller.setProvider(providerOf(this));
+            }
+            controller.setSession(sessionOf(this, TAG));
+            if (controller.getProvider() == null) {
+                controller.clear();
+                dismissAllowingStateLoss();
+                return;
+            }
+            controller.start();
+        }
+
+        @Override
+        public void onStart() {
+            super.onStart();
+            try {
+                Dialog dialog = getDialog();
+                Window window = dialog.getWindow();
+                window.setLayout(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+            } catch (Exception e) {
+                // ignore
+            }
+        }
+
+        @Override
+        public void onPause() {
+            controller.dismissKeyboard();
+            super.onPause();
+        }
+
+        @Override
+        public void onDestroyView() {
+            controller.stop();
+            super.onDestroyView();
+        }
+
+        public void setProvider(Provider provider) {
+            controller.setProvider(provider);
+        }
+
+        public void clear() {
+            controller.clear();
+        }
+    }
+
+    /**
+     * {@link BottomSheetDialogFragment} for {@link Pickable} values
+     */
+    public static class PickableBottomSheetDialogFragment extends BottomSheetDialogFragment
+            implements PickerController.Host {
+        public static final String TAG = PickableBottomSheetDialogFragment.class.getSimpleName();
+
+        private final PickerController controller = new PickerController(this);
+
+        public PickableBottomSheetDialogFragment() {
+        }
+
+        public PickableBottomSheetDialogFragment(@NonNull Provider provider) {
+            controller.setProvider(provider);
+        }
+
+        /**
+         * Instantiate new bottom sheet picker in not exists
+         *
+         * @return
+         * @since 0.1.0
+         */
+        public static PickableBottomSheetDialogFragment newInstance() {
+            return newInstance(DEFAULT_KEY);
+        }
+
+        /**
+         * Instantiate new bottom sheet picker of a given session key
+         *
+         * @param key
+         * @return
+         * @since 0.8.0
+         */
+        public static PickableBottomSheetDialogFragment newInstance(@NonNull String key) {
+            final Bundle args = new Bundle();
+            args.putString(ARG_KEY, key);
+            final PickableBottomSheetDialogFragment fragment = new PickableBottomSheetDialogFragment();
+            fragment.setArguments(args);
+            return fragment;
+        }
+
+        @Nullable
+        @Override
+        public View onCreateView(
+                @NonNull LayoutInflater inflater,
+                @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
+            return controller.createView(inflater, container);
+        }
+
+        @NonNull
+        @Override
+        public Dialog onCreateDialog(@Nullable Bundle savedInstanceState) {
+            // navigate up hierarchical values on back
+            Dialog dialog = super.onCreateDialog(savedInstanceState);
+            dialog.setOnKeyListener((d, keyCode, event) -> controller.onBackKey(keyCode, event));
+            return dialog;
+        }
+
+        @Override
+        public void onActivityCreated(@Nullable Bundle savedInstanceState) {
+            super.onActivityCreated(savedInstanceState);
+
+            // resume or start session, dismiss if its provider is gone(e.g recreated)
+            if (controller.getProvider() == null) {
+                controller.setProvider(providerOf(this));
+            }
+            controller.setSession(sessionOf(this, TAG));
+            if (controller.getProvider() == null) {
+                controller.clear();
+                dismissAllowingStateLoss();
+                return;
+            }
+            controller.start();
+        }
+
+        @Override
+        public void onPause() {
+            controller.dismissKeyboard();
+            super.onPause();
+        }
+
+        @Override
+        public void onDestroyView() {
+            controller.stop();
+            super.onDestroyView();
+        }
+
+        public void setProvider(Provider provider) {
+            controller.setProvider(provider);
+        }
+
+        public void clear() {
+            controller.clear();
+        }
+
+    }
+
+    /**
+     * A {@link Pickable} with display values computed ahead of binding.
+     * <p>
+     * Rows are prepared off the main thread so that binding only assigns values
+     * and unchanged rows compare equal while diffing.
+     *
+     * @since 0.8.0
+     */
+    public static class PickableRow implements Pickable {
+        final Pickable pickable;
+        final String name;
+        final String description;
+        final String letter;
+        final Integer color;
+        final int[] highlights;
+        private String foldedName;
+        private String foldedDescription;
+        PrecomputedTextCompat precomputedName;
+        PrecomputedTextCompat precomputedDescription;
+
+        PickableRow(@NonNull Pickable pickable) {
+            this(pickable, "");
+        }
+
+        PickableRow(@NonNull Pickable pickable, @NonNull String text) {
+            this.pickable = pickable;
+            this.name = pickable.getName();
+            this.description = Common.Strings.valueOr(pickable.getDescription(), name);
+            this.letter = name.isEmpty() ? "" : name.substring(0, 1);
+            this.color = avatars.parseColor(pickable.getColor());
+            this.highlights = text.isEmpty() ? null : Folding.ranges(name, text);
+        }
+
+        private PickableRow(@NonNull PickableRow row, @NonNull String text) {
+            this.pickable = row.pickable;
+            this.name = row.name;
+            this.description = row.description;
+            this.letter = row.letter;
+            this.color = row.color;
+            this.foldedName = row.foldedName;
+            this.foldedDescription = row.foldedDescription;
+            this.highlights = text.isEmpty() ? null : Folding.ranges(name, text);
+        }
+
+        /**
+         * Obtain row of a given pickable
+         *
+         * @param pickable
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        public static PickableRow of(@NonNull Pickable pickable) {
+            return pickable instanceof PickableRow ? (PickableRow) pickable : new PickableRow(pickable);
+        }
+
+        /**
+         * Obtain original pickable of a given row
+         *
+         * @param pickable
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        public static Pickable unwrap(@NonNull Pickable pickable) {
+            return pickable instanceof PickableRow ? ((PickableRow) pickable).pickable : pickable;
+        }
+
+        /**
+         * Prepare provider values into rows on {@link ValuePicker#getExecutor()}
+         *
+         * @param provider
+         * @param query
+         * @param task
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        public static Task<List<Pickable>> prepare(
+                @NonNull Provider provider, @NonNull Query query, @NonNull Task<List<Pickable>> task) {
+            return prepare(provider, query, task, null);
+        }
+
+        /**
+         * Prepare provider values into rows on {@link ValuePicker#getExecutor()}, precomputing
+         * name and description layouts of leading rows with a picker's row text metrics
+         *
+         * @param provider
+         * @param query
+         * @param task
+         * @param rowText
+         * @return
+         */
+        @NonNull
+        @SuppressWarnings("unchecked")
+        static Task<List<Pickable>> prepare(@NonNull Provider provider, @NonNull Query query,
+                                            @NonNull Task<List<Pickable>> task, @Nullable RowText rowText) {
+            return task.continueWith(getExecutor(), result -> {
+                List<Pickable> values = result.getResult();
+                if (values == null || values.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                values = provider.prepare(query, values);
+                String text = Folding.fold(textOf(query));
+                List<Pickable> rows = new ArrayList<>(values.size());
+                for (Pickable value : values) {
+                    rows.add(new PickableRow(unwrap(value), text).precompute(rows.size(), rowText));
+                }
+                return rows;
+            });
+        }
+
+        /**
+         * Narrow rows to ones whose folded name or description contain a folded text,
+         * re-highlighted for it, on {@link ValuePicker#getExecutor()}
+         *
+         * @param values
+         * @param text    folded text
+         * @param rowText
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        static Task<List<Pickable>> filter(
+                @NonNull List<Pickable> values, @NonNull String text, @Nullable RowText rowText) {
+            final List<Pickable> rows = new ArrayList<>(values);
+            return Tasks.call(getExecutor(), () -> {
+                List<Pickable> filtered = new ArrayList<>();
+                for (Pickable value : rows) {
+                    PickableRow row = of(value);
+                    if (row.matches(text)) {
+                        filtered.add(new PickableRow(row, text).precompute(filtered.size(), rowText));
+                    }
+                }
+                return filtered;
+            });
+        }
+
+        /**
+         * Check if folded name or description contain a folded text, folding them
+         * once per row off the main thread
+         *
+         * @param text folded text
+         * @return
+         */
+        boolean matches(@NonNull String text) {
+            String name = foldedName;
+            String description = foldedDescription;
+            if (name == null || description == null) {
+                name = foldedName = Folding.fold(this.name);
+                description = foldedDescription = Folding.fold(this.description);
+            }
+            return name.contains(text) || description.contains(text);
+        }
+
+        /**
+         * Precompute name and description layouts of a row at a given position,
+         * invoked off the main thread
+         *
+         * @param position
+         * @param rowText  row text metrics, or null to skip precomputing
+         * @return
+         */
+        @NonNull
+        PickableRow precompute(int position, @Nullable RowText rowText) {
+            if (rowText == null || position >= RowText.MAX_ROWS) {
+                return this;
+            }
+            CharSequence highlighted = highlights == null ? name : highlight(name, highlights);
+            precomputedName = PrecomputedTextCompat.create(highlighted, rowText.name);
+            precomputedDescription = PrecomputedTextCompat.create(description, rowText.description);
+            return this;
+        }
+
+        @NonNull
+        private static CharSequence highlight(@NonNull String name, @NonNull int[] highlights) {
+            SpannableStringBuilder highlighted = new SpannableStringBuilder(name);
+            for (int i = 0; i + 1 < highlights.length; i += 2) {
+                int start = Math.min(highlights[i], name.length());
+                int end = Math.min(highlights[i + 1], name.length());
+                if (start < end) {
+                    highlighted.setSpan(new StyleSpan(Typeface.BOLD), start, end, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+                }
+            }
+            return highlighted;
+        }
+
+        @NonNull
+        public Pickable getPickable() {
+            return pickable;
+        }
+
+        @NonNull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Nullable
+        @Override
+        public String getDescription() {
+            return pickable.getDescription();
+        }
+
+        @Nullable
+        @Override
+        public String getColor() {
+            return pickable.getColor();
+        }
+
+        @NonNull
+        @Override
+        public String getObjectId() {
+            return pickable.getObjectId();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PickableRow)) {
+                return false;
+            }
+            PickableRow row = (PickableRow) o;
+            return getObjectId().equals(row.getObjectId())
+                    && name.equals(row.name)
+                    && description.equals(row.description)
+                    && (color == null ? row.color == null : color.equals(row.color))
+                    && Arrays.equals(highlights, row.highlights);
+        }
+
+        @Override
+        public int hashCode() {
+            return getObjectId().hashCode();
+        }
+    }
+
+    /**
+     * Text metrics of picker row name and description views, captured on the main
+     * thread to precompute row text layouts off it.
+     *
+     * @since 0.8.0
+     */
+    static class RowText {
+        static final int MAX_ROWS = 100;
+
+        final PrecomputedTextCompat.Params name;
+        final PrecomputedTextCompat.Params description;
+
+        RowText(@NonNull PrecomputedTextCompat.Params name, @NonNull PrecomputedTextCompat.Params description) {
+            this.name = name;
+            this.description = description;
+        }
+    }
+
+    /**
+     * Bounded cache of letter avatars keyed by letter and colour, and of parsed
+     * colours keyed by their raw value.
+     * <p>
+     * A single letter avatar is created per letter and colour, and each row keeps one
+     * {@link LetterAvatar} rebound to it, so that bounds, alpha and callbacks set by one
+     * view never affect other rows displaying the same avatar. Least recently used
+     * entries are evicted once cache is full.
+     *
+     * @since 0.8.0
+     */
+    public static class AvatarCache {
+        private static final long NO_COLOR = 1L << 48;
+
+        private final Map<Long, Drawable> drawables;
+        private final Map<String, Integer> colors;
+        private final AtomicInteger hits = new AtomicInteger();
+        private final AtomicInteger misses = new AtomicInteger();
+
+        public AvatarCache(final int maxSize) {
+            this.drawables = new LinkedHashMap<Long, Drawable>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Drawable> eldest) {
+                    return size() > maxSize;
+                }
+            };
+            this.colors = new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        /**
+         * Obtain cached letter avatar, must be called on the main thread
+         *
+         * @param letter
+         * @param color
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        public Drawable letterAvatarFor(@NonNull String letter, @Nullable Integer color) {
+            return new LetterAvatar(avatarFor(letter.isEmpty() ? 0 : letter.charAt(0), color));
+        }
+
+        /**
+         * Obtain cached letter avatar, must be called on the main thread
+         *
+         * @param letter
+         * @param color
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        public Drawable letterAvatarFor(char letter, @Nullable Integer color) {
+            return new LetterAvatar(avatarFor(letter, color));
+        }
+
+        /**
+         * Rebind a row's own letter avatar to a cached one, must be called on the main thread
+         *
+         * @param avatar
+         * @param letter
+         * @param color
+         * @return
+         */
+        @NonNull
+        LetterAvatar letterAvatarFor(@NonNull LetterAvatar avatar, char letter, @Nullable Integer color) {
+            avatar.setAvatar(avatarFor(letter, color));
+            return avatar;
+        }
+
+        @NonNull
+        private Drawable avatarFor(char letter, @Nullable Integer color) {
+            long key = ((long) letter << 32) | (color != null ? (color & 0xFFFFFFFFL) : NO_COLOR);
+            Drawable drawable = drawables.get(key);
+            metrics.onCacheLookup(PickerMetrics.CACHE_AVATARS, drawable != null);
+            if (drawable != null) {
+                hits.incrementAndGet();
+                return drawable;
+            }
+            misses.incrementAndGet();
+            drawable = Common.Drawables.letterAvatarFor(letter == 0 ? "" : String.valueOf(letter), color);
+            drawables.put(key, drawable);
+            return drawable;
+        }
+
+        /**
+         * Obtain cached parsed colour, safe to call off the main thread
+         *
+         * @param color
+         * @return
+         * @since 0.8.0
+         */
+        @Nullable
+        public Integer parseColor(@Nullable String color) {
+            if (Common.Strings.isEmpty(color)) {
+                return Common.Colors.parseColor(color);
+            }
+            synchronized (colors) {
+                Integer parsed = colors.get(color);
+                if (parsed == null) {
+                    parsed = Common.Colors.parseColor(color);
+                    colors.put(color, parsed);
+                }
+                return parsed;
+            }
+        }
+
+        public int getHitCount() {
+            return hits.get();
+        }
+
+        public int getMissCount() {
+            return misses.get();
+        }
+
+        /**
+         * Obtain ratio of letter avatar lookups served from cache
+         *
+         * @return
+         * @since 0.8.0
+         */
+        public float getHitRate() {
+            int hit = hits.get();
+            int lookups = hit + misses.get();
+            return lookups == 0 ? 0f : (float) hit / lookups;
+        }
+
+        /**
+         * Drop all cached avatars and colours
+         *
+         * @since 0.8.0
+         */
+        public void clear() {
+            drawables.clear();
+            synchronized (colors) {
+                colors.clear();
+            }
+        }
+
+        /**
+         * Per view drawable of a shared letter avatar, keeping its own bounds, alpha and
+         * colour filter and applying them to shared avatar only while drawing on the main thread
+         */
+        static class LetterAvatar extends Drawable {
+            Drawable avatar;
+            private int alpha = 255;
+            private ColorFilter colorFilter;
+
+            LetterAvatar() {
+            }
+
+            LetterAvatar(@NonNull Drawable avatar) {
+                this.avatar = avatar;
+            }
+
+            void setAvatar(@NonNull Drawable avatar) {
+                if (this.avatar != avatar) {
+                    this.avatar = avatar;
+                    invalidateSelf();
+                }
+            }
+
+            @Override
+            public void draw(@NonNull Canvas canvas) {
+                if (avatar == null) {
+                    return;
+                }
+                avatar.setBounds(getBounds());
+                avatar.setAlpha(alpha);
+                avatar.setColorFilter(colorFilter);
+                avatar.draw(canvas);
+                avatar.setAlpha(255);
+                avatar.setColorFilter(null);
+            }
+
+            @Override
+            public void setAlpha(int alpha) {
+                this.alpha = alpha;
+                invalidateSelf();
+            }
+
+            @Override
+            public int getAlpha() {
+                return alpha;
+            }
+
+            @Override
+            public void setColorFilter(@Nullable ColorFilter colorFilter) {
+                this.colorFilter = colorFilter;
+                invalidateSelf();
+            }
+
+            @Override
+            public int getIntrinsicWidth() {
+                return avatar != null ? avatar.getIntrinsicWidth() : -1;
+            }
+
+            @Override
+            public int getIntrinsicHeight() {
+                return avatar != null ? avatar.getIntrinsicHeight() : -1;
+            }
+
+            @Override
+            @SuppressWarnings("deprecation")
+            public int getOpacity() {
+                return avatar != null ? avatar.getOpacity() : PixelFormat.TRANSPARENT;
+            }
+        }
+    }
+
+    /**
+     * Set of selected {@link Pickable} values keyed by their object id.
+     * <p>
+     * Membership checks are constant time and independent of displayed values,
+     * so selections survive filtering and paging.
+     *
+     * @since 0.8.0
+     */
+    public static class SelectionSet {
+        private final Map<String, Pickable> values = new LinkedHashMap<>();
+
+        public SelectionSet() {
+        }
+
+        public SelectionSet(@NonNull Collection<? extends Pickable> values) {
+            for (Pickable value : values) {
+                add(value);
+            }
+        }
+
+        public boolean contains(@NonNull Pickable pickable) {
+            return values.containsKey(pickable.getObjectId());
+        }
+
+        public void add(@NonNull Pickable pickable) {
+            Pickable value = PickableRow.unwrap(pickable);
+            values.put(value.getObjectId(), value);
+        }
+
+        public void remove(@NonNull Pickable pickable) {
+            values.remove(pickable.getObjectId());
+        }
+
+        /**
+         * Toggle selection of a given pickable
+         *
+         * @param pickable
+         * @return whether pickable is now selected
+         * @since 0.8.0
+         */
+        public boolean toggle(@NonNull Pickable pickable) {
+            if (contains(pickable)) {
+                remove(pickable);
+                return false;
+            }
+            add(pickable);
+            return true;
+        }
+
+        public int size() {
+            return values.size();
+        }
+
+        public void clear() {
+            values.clear();
+        }
+
+        /**
+         * Obtain selected values in selection order
+         *
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        public List<Pickable> getValues() {
+            return new ArrayList<>(values.values());
+        }
+    }
+
+    /**
+     * Prewarmed picker values and rows of an activity
+     */
+    static class Prewarm implements LifecycleObserver {
+        final FragmentActivity activity;
+        final RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+        final Map<Provider, Task<List<Pickable>>> values = new HashMap<>();
+        final Map<Provider, CancellationTokenSource> cancellations = new HashMap<>();
+        int inflated = 0;
+        boolean destroyed = false;
+
+        Prewarm(@NonNull FragmentActivity activity) {
+            this.activity = activity;
+        }
+
+        void inflate(int rows) {
+            if (inflated >= rows || destroyed || activity.isFinishing()) {
+                return;
+            }
+            RecyclerView parent = new RecyclerView(activity);
+            parent.setLayoutManager(new LinearLayoutManager(activity));
+            PickableAdapter adapter = new PickableAdapter(pickable -> {
+            });
+            int viewType = rowStyle.ordinal();
+            pool.setMaxRecycledViews(viewType, Math.max(rows, DEFAULT_PREWARM_ROWS));
+            for (; inflated < rows; inflated++) {
+                pool.putRecycledView(adapter.createViewHolder(parent, viewType));
+            }
+        }
+
+        @OnLifecycleEvent(Lifecycle.Event.ON_DESTROY)
+        void onDestroy() {
+            // cancel values no picker took
+            destroyed = true;
+            prewarms.remove(activity);
+            for (CancellationTokenSource cancellation : cancellations.values()) {
+                cancellation.cancel();
+            }
+            cancellations.clear();
+            values.clear();
+            pool.clear();
+            activity.getLifecycle().removeObserver(this);
+        }
+    }
+
+    /**
+     * Debounced and cancellable search pipeline shared by pickers.
+     * <p>
+     * Typed queries are searched only after {@link Provider#getDebounce()} of quiet,
+     * in-flight {@link Task}s are cancelled through their {@link CancellationToken}
+     * once superseded and only results of the latest query are delivered.
+     * <p>
+     * Values of a {@link StreamingProvider} are delivered progressively, at most once per frame,
+     * and values of a {@link CursorProvider} are delivered as a cursor.
+     *
+     * @since 0.8.0
+     */
+    public static class SearchPipeline {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+        private final Provider provider;
+        private final Listener listener;
+        private CancellationTokenSource cancellation;
+        private Runnable pending;
+        private Query pendingQuery;
+        private Query inFlightQuery;
+        private Task<List<Pickable>> inFlight;
+        private long inFlightStart;
+        private Stream stream;
+        private RowText rowText;
+        private int generation = 0;
+
+        public SearchPipeline(@NonNull Provider provider, @NonNull Listener listener) {
+            this.provider = provider;
+            this.listener = listener;
+        }
+
+        /**
+         * Set row text metrics used to precompute layouts of leading rows
+         *
+         * @param rowText
+         */
+        void setRowText(@Nullable RowText rowText) {
+            this.rowText = rowText;
+        }
+
+        /**
+         * Search given query once provider quiet period elapse
+         *
+         * @param query
+         * @since 0.8.0
+         */
+        public void search(@NonNull Query query) {
+            final int current = supersede();
+            long debounce = provider.getDebounce();
+            if (debounce <= 0) {
+                execute(query, current);
+                return;
+            }
+            pendingQuery = query;
+            pending = () -> {
+                pending = null;
+                execute(query, current);
+            };
+            handler.postDelayed(pending, debounce);
+        }
+
+        /**
+         * Search given query immediately
+         *
+         * @param query
+         * @since 0.8.0
+         */
+        public void searchNow(@NonNull Query query) {
+            execute(query, supersede());
+        }
+
+        /**
+         * Cancel pending and in-flight searches, their results will not be delivered
+         *
+         * @since 0.8.0
+         */
+        public void cancel() {
+            supersede();
+        }
+
+        /**
+         * Check if a search is pending or in-flight
+         *
+         * @return
+         * @since 0.8.0
+         */
+        public boolean isSearching() {
+            return pending != null || cancellation != null;
+        }
+
+        /**
+         * Detach in-flight values search, without cancelling it, so that another
+         * pipeline can {@link #attach(Detached)} to it.
+         *
+         * @return detached search or null if there was no values in-flight
+         * @since 0.8.0
+         */
+        @Nullable
+        public Detached detach() {
+            if (inFlight == null || cancellation == null || pending != null) {
+                return null;
+            }
+            Detached detached = new Detached(inFlightQuery, inFlight, cancellation, inFlightStart);
+            cancellation = null;
+            supersede();
+            return detached;
+        }
+
+        /**
+         * Deliver values of a search detached from another pipeline
+         *
+         * @param detached
+         * @since 0.8.0
+         */
+        public void attach(@NonNull Detached detached) {
+            final int current = supersede();
+            listener.onSearchStart(detached.query);
+            inFlightQuery = detached.query;
+            cancellation = detached.cancellation;
+            complete(detached.query, detached.task, current, detached.start);
+        }
+
+        private int supersede() {
+            // drop pending search
+            if (pending != null) {
+                handler.removeCallbacks(pending);
+                pending = null;
+                metrics.onQueryDropped(provider, pendingQuery, false);
+            }
+
+            // drop undelivered streamed values
+            if (stream != null) {
+                stream.cancel();
+                stream = null;
+            }
+
+            // cancel in-flight search
+            if (cancellation != null) {
+                cancellation.cancel();
+                cancellation = null;
+                metrics.onQueryDropped(provider, inFlightQuery, true);
+            }
+
+            inFlight = null;
+            return ++generation;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void execute(@NonNull Query query, int current) {
+            // notify start
+            listener.onSearchStart(query);
+
+            // request values
+            final long start = SystemClock.elapsedRealtime();
+            inFlightQuery = query;
+            cancellation = new CancellationTokenSource();
+            if (provider instanceof CursorProvider) {
+                query(query, current, start);
+                return;
+            }
+            Task<List<Pickable>> task = textOf(query).isEmpty() ? takePrewarmed(provider) : null;
+            boolean prewarmed = task != null && (!task.isComplete() || task.isSuccessful());
+            if (!prewarmed && provider instanceof StreamingProvider) {
+                stream = new Stream(query, current, start, cancellation.getToken());
+                stream.start();
+                return;
+            }
+            if (!prewarmed) {
+                task = PickableRow.prepare(
+                        provider, query, provider.getValues(query, cancellation.getToken()), rowText);
+            }
+            complete(query, task, current, start);
+        }
+
+        private void complete(@NonNull Query query, @NonNull Task<List<Pickable>> task, int current, long start) {
+            // deliver latest results only
+            inFlight = task;
+            inFlightStart = start;
+            task.addOnCompleteListener(TaskExecutors.MAIN_THREAD, result -> {
+                if (current != generation || result.isCanceled()) {
+                    return;
+                }
+                if (result.isSuccessful()) {
+                    List<Pickable> pickables = result.getResult();
+                    deliver(query, start, pickables != null ? pickables : Collections.emptyList());
+                } else {
+                    Exception error = result.getException();
+                    fail(query, start, error != null ? error : new Exception());
+                }
+            });
+        }
+
+        private void query(@NonNull Query query, int current, long start) {
+            Task<Cursor> task = ((CursorProvider) provider).getCursor(query, cancellation.getToken());
+            task.addOnCompleteListener(TaskExecutors.MAIN_THREAD, result -> {
+                Cursor cursor = result.isSuccessful() ? result.getResult() : null;
+                if (current != generation || result.isCanceled()) {
+                    if (cursor != null) {
+                        cursor.close();
+                    }
+                    return;
+                }
+                if (cursor != null) {
+                    cancellation = null;
+                    metrics.onQuerySuccess(provider, query, SystemClock.elapsedRealtime() - start, cursor.getCount());
+                    listener.onSearchCursor(query, cursor);
+                } else {
+                    Exception error = result.getException();
+                    fail(query, start, error != null ? error : new Exception());
+                }
+            });
+        }
+
+        private void deliver(@NonNull Query query, long start, @NonNull List<Pickable> pickables) {
+            cancellation = null;
+            inFlight = null;
+            metrics.onQuerySuccess(provider, query, SystemClock.elapsedRealtime() - start, pickables.size());
+            listener.onSearchSuccess(query, pickables);
+        }
+
+        private void fail(@NonNull Query query, long start, @NonNull Exception error) {
+            cancellation = null;
+            inFlight = null;
+            metrics.onQueryFailure(provider, query, SystemClock.elapsedRealtime() - start, error);
+            listener.onSearchFailure(query, error);
+        }
+
+        /**
+         * Interface definition for callbacks to be invoked on {@link SearchPipeline} progress
+         *
+         * @since 0.8.0
+         */
+        public interface Listener {
+            void onSearchStart(@NonNull Query query);
+
+            void onSearchSuccess(@NonNull Query query, @NonNull List<Pickable> pickables);
+
+            void onSearchFailure(@NonNull Query query, @NonNull Exception error);
+
+            /**
+             * Invoked with all values streamed so far, before {@link #onSearchSuccess(Query, List)}
+             *
+             * @param query
+             * @param pickables
+             */
+            default void onSearchProgress(@NonNull Query query, @NonNull List<Pickable> pickables) {
+            }
+
+            /**
+             * Invoked with queried cursor of a {@link CursorProvider}, listener owns and must close it
+             *
+             * @param query
+             * @param cursor
+             */
+            default void onSearchCursor(@NonNull Query query, @NonNull Cursor cursor) {
+                cursor.close();
+            }
+        }
+
+        /**
+         * Values search detached from a pipeline, still loading
+         *
+         * @since 0.8.0
+         */
+        public static class Detached {
+            final Query query;
+            final Task<List<Pickable>> task;
+            final CancellationTokenSource cancellation;
+            final long start;
+
+            Detached(@NonNull Query query, @NonNull Task<List<Pickable>> task,
+                     @NonNull CancellationTokenSource cancellation, long start) {
+                this.query = query;
+                this.task = task;
+                this.cancellation = cancellation;
+                this.start = start;
+            }
+
+            /**
+             * Cancel detached search, when no pipeline will attach to it
+             *
+             * @since 0.8.0
+             */
+            public void cancel() {
+                cancellation.cancel();
+            }
+        }
+
+        /**
+         * Streamed values of a single search, prepared on {@link ValuePicker#getExecutor()}
+         * in emission order and delivered on the next frame.
+         */
+        private class Stream implements StreamingProvider.Emitter<Pickable>, Choreographer.FrameCallback {
+            private final Choreographer choreographer = Choreographer.getInstance();
+            private final Object lock = new Object();
+            private final Query query;
+            private final int current;
+            private final long start;
+            private final CancellationToken token;
+            private final String text;
+            private final List<Pickable> rows = new ArrayList<>();
+            private final List<Pickable> pending = new ArrayList<>();
+            private Task<Void> tail = Tasks.forResult(null);
+            private int precomputed = 0;
+            private Exception error;
+            private boolean replaced = false;
+            private boolean closed = false;
+            private boolean finished = false;
+            private boolean scheduled = false;
+
+            Stream(@NonNull Query query, int current, long start, @NonNull CancellationToken token) {
+                this.query = query;
+                this.current = current;
+                this.start = start;
+                this.token = token;
+                this.text = Folding.fold(textOf(query));
+            }
+
+            @SuppressWarnings("unchecked")
+            void start() {
+                try {
+                    ((StreamingProvider) provider).stream(query, token, this);
+                } catch (Exception e) {
+                    onError(e);
+                }
+            }
+
+            void cancel() {
+                choreographer.removeFrameCallback(this);
+            }
+
+            @Override
+            public void onBatch(@NonNull List<Pickable> batch) {
+                if (batch.isEmpty() || token.isCancellationRequested()) {
+                    return;
+                }
+                final List<Pickable> values = new ArrayList<>(batch);
+                enqueue(() -> {
+                    List<Pickable> batchRows = rowsOf(values);
+                    synchronized (lock) {
+                        pending.addAll(batchRows);
+                        schedule();
+                    }
+                }, false);
+            }
+
+            @Override
+            public void onReplace(@NonNull List<Pickable> values) {
+                if (token.isCancellationRequested()) {
+                    return;
+                }
+                final List<Pickable> replacement = new ArrayList<>(values);
+                enqueue(() -> {
+                    precomputed = 0;
+                    List<Pickable> replacedRows = rowsOf(replacement);
+                    synchronized (lock) {
+                        replaced = true;
+                        pending.clear();
+                        pending.addAll(replacedRows);
+                        schedule();
+                    }
+                }, false);
+            }
+
+            @NonNull
+            @SuppressWarnings("unchecked")
+            private List<Pickable> rowsOf(@NonNull List<Pickable> values) {
+                List<Pickable> prepared = provider.prepare(query, values);
+                List<Pickable> preparedRows = new ArrayList<>(prepared.size());
+                for (Pickable value : prepared) {
+                    preparedRows.add(
+                            new PickableRow(PickableRow.unwrap(value), text).precompute(precomputed++, rowText));
+                }
+                return preparedRows;
+            }
+
+            @Override
+            public void onComplete() {
+                enqueue(() -> finish(null), true);
+            }
+
+            @Override
+            public void onError(@NonNull Exception error) {
+                enqueue(() -> finish(error), true);
+            }
+
+            private void enqueue(@NonNull Runnable runnable, boolean close) {
+                synchronized (lock) {
+                    if (closed) {
+                        return;
+                    }
+                    closed = close;
+                    tail = tail.continueWith(getExecutor(), result -> {
+                        if (!token.isCancellationRequested()) {
+                            runnable.run();
+                        }
+                        return null;
+                    });
+                }
+            }
+
+            private void finish(@Nullable Exception error) {
+                synchronized (lock) {
+                    this.error = error;
+                    this.finished = true;
+                    schedule();
+                }
+            }
+
+            private void schedule() {
+                if (!scheduled) {
+                    scheduled = true;
+                    choreographer.postFrameCallback(this);
+                }
+            }
+
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                boolean finished;
+                Exception error;
+                synchronized (lock) {
+                    if (replaced) {
+                        rows.clear();
+                        replaced = false;
+                    }
+                    rows.addAll(pending);
+                    pending.clear();
+                    scheduled = false;
+                    finished = this.finished;
+                    error = this.error;
+                }
+                if (current != generation) {
+                    return;
+                }
+
+                // show values streamed so far
+                if (!finished) {
+                    listener.onSearchProgress(query, new ArrayList<>(rows));
+                    return;
+                }
+
+                // deliver all streamed values
+                stream = null;
+                if (error == null) {
+                    deliver(query, start, rows);
+                } else {
+                    fail(query, start, error);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sliding window of {@link PagedProvider} pages bound to a {@link PickableAdapter}.
+     * <p>
+     * Next or previous pages are requested as adapter nears either end of values and
+     * at most {@link PagedProvider#getMaxPages()} pages are kept, pages dropped from one end
+     * are requested again once scrolled back to.
+     *
+     * @since 0.8.0
+     */
+    public static class Pager implements OnLoadMoreListener {
+        private final PagedProvider provider;
+        private final PickableAdapter adapter;
+        private final List<List<Pickable>> pages = new ArrayList<>();
+        private CancellationTokenSource cancellation;
+        private Query query;
+        private int first = 0;
+        private int generation = 0;
+        private boolean loading = false;
+        private boolean exhausted = true;
+
+        public Pager(@NonNull PagedProvider provider, @NonNull PickableAdapter adapter) {
+            this.provider = provider;
+            this.adapter = adapter;
+        }
+
+        /**
+         * Start paging a given query from its first page
+         *
+         * @param query
+         * @param values first page values
+         * @since 0.8.0
+         */
+        public void reset(@NonNull Query query, @NonNull List<Pickable> values) {
+            cancel();
+            this.query = query;
+            this.first = 0;
+            this.pages.clear();
+            this.pages.add(values);
+            this.exhausted = values.size() < provider.getPageSize();
+            submit();
+        }
+
+        @Override
+        public void onLoadNext() {
+            if (query != null && !loading && !exhausted) {
+                load(first + pages.size(), true);
+            }
+        }
+
+        @Override
+        public void onLoadPrevious() {
+            if (query != null && !loading && first > 0) {
+                load(first - 1, false);
+            }
+        }
+
+        public int getFirstPage() {
+            return first;
+        }
+
+        public int getPageCount() {
+            return pages.size();
+        }
+
+        public boolean isExhausted() {
+            return exhausted;
+        }
+
+        /**
+         * Cancel in-flight page request, its values will not be delivered
+         *
+         * @since 0.8.0
+         */
+        public void cancel() {
+            generation++;
+            loading = false;
+            if (cancellation != null) {
+                cancellation.cancel();
+                cancellation = null;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void load(final int page, final boolean next) {
+            // request page
+            loading = true;
+            final int current = generation;
+            cancellation = new CancellationTokenSource();
+            Task<List<Pickable>> task = PickableRow.prepare(
+                    provider, query, provider.getValues(query, page, cancellation.getToken()), adapter.rowText);
+
+            // slide window
+            task.addOnCompleteListener(TaskExecutors.MAIN_THREAD, result -> {
+                if (current != generation || result.isCanceled()) {
+                    return;
+                }
+                loading = false;
+                cancellation = null;
+
+                // keep current pages, retry on next scroll
+                if (!result.isSuccessful() || result.getResult() == null) {
+                    return;
+                }
+
+                List<Pickable> values = result.getResult();
+                if (next) {
+                    exhausted = values.size() < provider.getPageSize();
+                    if (values.isEmpty()) {
+                        return;
+                    }
+                    pages.add(values);
+                    if (pages.size() > Math.max(provider.getMaxPages(), 2)) {
+                        pages.remove(0);
+                        first++;
+                    }
+                } else {
+                    pages.add(0, values);
+                    first--;
+                    if (pages.size() > Math.max(provider.getMaxPages(), 2)) {
+                        pages.remove(pages.size() - 1);
+                        exhausted = false;
+                    }
+                }
+                submit();
+            });
+        }
+
+        private void submit() {
+            List<Pickable> values = new ArrayList<>();
+            for (List<Pickable> page : pages) {
+                values.addAll(page);
+            }
+            adapter.submitList(values);
+        }
+    }
+
+    /**
+     * Simple {@link Pickable} provider
+     *
+     * @since 0.7.0
+     */
+    public abstract static class SimpleProvider<T extends Pickable> implements Provider<T> {
+        @Override
+        public int getThreshold() {
+            return 1;
+        }
+    }
+
+    /**
+     * Caching {@link Pickable} provider.
+     * <p>
+     * Decorates a given provider and serve repeated queries from a size and
+     * time bounded least recently used cache. Keep a single instance around(e.g as a field)
+     * for repeated picker opens to render from memory.
+     * <p>
+     * Only {@link Provider} methods are decorated, paging of a {@link PagedProvider} and
+     * selections of a {@link MultiProvider} are not forwarded, so do not decorate those.
+     *
+     * @since 0.8.0
+     */
+    public static class CachingProvider<T extends Pickable> implements Provider<T> {
+        public static final int DEFAULT_MAX_SIZE = 32;
+        public static final long DEFAULT_TTL = 5 * 60 * 1000L;
+        private static final Executor DIRECT = Runnable::run;
+
+        private final Provider<T> provider;
+        private final long ttl;
+        private final Map<String, Entry<T>> cache;
+        private int hits = 0;
+        private int misses = 0;
+
+        public CachingProvider(@NonNull Provider<T> provider) {
+            this(provider, DEFAULT_MAX_SIZE, DEFAULT_TTL);
+        }
+
+        /**
+         * Instantiate caching provider
+         *
+         * @param provider provider to cache values for
+         * @param maxSize  maximum number of cached queries
+         * @param ttl      time, in milliseconds, a cached query remain fresh
+         * @since 0.8.0
+         */
+        public CachingProvider(@NonNull Provider<T> provider, final int maxSize, long ttl) {
+            this.provider = provider;
+            this.ttl = ttl;
+            this.cache = new LinkedHashMap<String, Entry<T>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        @Override
+        public String getTitle() {
+            return provider.getTitle();
+        }
+
+        @Override
+        public String getSearchHint() {
+            return provider.getSearchHint();
+        }
+
+        @Override
+        public int getThreshold() {
+            return provider.getThreshold();
+        }
+
+        @Override
+        public long getDebounce() {
+            return provider.getDebounce();
+        }
+
+        @NonNull
+        @Override
+        public LoadingMode getLoadingMode() {
+            return provider.getLoadingMode();
+        }
+
+        @NonNull
+        @Override
+        public Task<List<T>> getValues(@NonNull Query query) {
+            return getValues(query, new CancellationTokenSource().getToken());
+        }
+
+        @NonNull
+        @Override
+        public Task<List<T>> getValues(@NonNull Query query, @NonNull CancellationToken token) {
+            // serve copy from cache, prepare may sort in place
+            final String key = keyFor(query);
+            List<T> cached = get(key);
+            if (cached != null) {
+                return Tasks.forResult(new ArrayList<>(cached));
+            }
+
+            // load and cache
+            return provider.getValues(query, token).onSuccessTask(DIRECT, values -> {
+                put(key, values);
+                List<T> copy = values != null ? new ArrayList<>(values) : null;
+                return Tasks.forResult(copy);
+            });
+        }
+
+        @NonNull
+        @Override
+        public List<T> prepare(@NonNull Query query, @NonNull List<T> values) {
+            return provider.prepare(query, values);
+        }
+
+        @NonNull
+        @Override
+        public void onValueSelected(T pickable) {
+            provider.onValueSelected(pickable);
+        }
+
+        /**
+         * Derive cache key of a given query, its exact search text.
+         * <p>
+         * Pickers create queries from search text only, override to account for other
+         * query parts when values are requested with richer queries.
+         *
+         * @param query
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        protected String keyFor(@NonNull Query query) {
+            return searchKeyOf(query);
+        }
+
+        /**
+         * Drop all cached values
+         *
+         * @since 0.8.0
+         */
+        public synchronized void invalidate() {
+            cache.clear();
+        }
+
+        public synchronized int getHitCount() {
+            return hits;
+        }
+
+        public synchronized int getMissCount() {
+            return misses;
+        }
+
+        public synchronized int size() {
+            return cache.size();
+        }
+
+        @Nullable
+        private synchronized List<T> get(@NonNull String key) {
+            Entry<T> entry = cache.get(key);
+            if (entry != null && SystemClock.elapsedRealtime() - entry.time <= ttl) {
+                hits++;
+                metrics.onCacheLookup(PickerMetrics.CACHE_QUERIES, true);
+                return entry.values;
+            }
+            if (entry != null) {
+                cache.remove(key);
+            }
+            misses++;
+            metrics.onCacheLookup(PickerMetrics.CACHE_QUERIES, false);
+            return null;
+        }
+
+        private synchronized void put(@NonNull String key, @Nullable List<T> values) {
+            if (values != null) {
+                List<T> copy = Collections.unmodifiableList(new ArrayList<>(values));
+                cache.put(key, new Entry<>(copy, SystemClock.elapsedRealtime()));
+            }
+        }
+
+        private static class Entry<T> {
+            final List<T> values;
+            final long time;
+
+            Entry(List<T> values, long time) {
+                this.values = values;
+                this.time = time;
+            }
+        }
+    }
+
+    /**
+     * Coalescing {@link Pickable} provider.
+     * <p>
+     * Decorates a given provider and share a single in-flight load among identical
+     * queries issued while it is pending(e.g several pickers over the same values).
+     * Shared load is cancelled only once every consumer has cancelled. Keep a single
+     * instance around(e.g as a field) and share it among pickers.
+     *
+     * @since 0.8.0
+     */
+    public static class CoalescingProvider<T extends Pickable> implements Provider<T> {
+        private static final Executor DIRECT = Runnable::run;
+
+        private final Provider<T> provider;
+        private final Map<String, Flight<T>> flights = new HashMap<>();
+        private int loads = 0;
+        private int shares = 0;
+
+        public CoalescingProvider(@NonNull Provider<T> provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public String getTitle() {
+            return provider.getTitle();
+        }
+
+        @Override
+        public String getSearchHint() {
+            return provider.getSearchHint();
+        }
+
+        @Override
+        public int getThreshold() {
+            return provider.getThreshold();
+        }
+
+        @Override
+        public long getDebounce() {
+            return provider.getDebounce();
+        }
+
+        @NonNull
+        @Override
+        public LoadingMode getLoadingMode() {
+            return provider.getLoadingMode();
+        }
+
+        @NonNull
+        @Override
+        public Task<List<T>> getValues(@NonNull Query query) {
+            return getValues(query, new CancellationTokenSource().getToken());
+        }
+
+        @NonNull
+        @Override
+        public Task<List<T>> getValues(@NonNull Query query, @NonNull CancellationToken token) {
+            // join or start in-flight load
+            final String key = keyFor(query);
+            final Flight<T> flight;
+            final boolean started;
+            synchronized (this) {
+                Flight<T> pending = flights.get(key);
+                started = pending == null;
+                flight = started ? new Flight<>() : pending;
+                if (started) {
+                    flights.put(key, flight);
+                    loads++;
+                } else {
+                    shares++;
+                }
+                flight.consumers++;
+            }
+            if (started) {
+                load(key, flight, query);
+            }
+
+            // deliver to this consumer, release its share once cancelled
+            final TaskCompletionSource<List<T>> source = new TaskCompletionSource<>(token);
+            token.onCanceledRequested(() -> release(key, flight));
+            flight.result.getTask().addOnCompleteListener(DIRECT, result -> {
+                if (result.isSuccessful()) {
+                    source.trySetResult(result.getResult());
+                } else {
+                    Exception error = result.getException();
+                    source.trySetException(error != null ? error : new Exception());
+                }
+            });
+            return source.getTask();
+        }
+
+        @NonNull
+        @Override
+        public List<T> prepare(@NonNull Query query, @NonNull List<T> values) {
+            return provider.prepare(query, values);
+        }
+
+        @NonNull
+        @Override
+        public void onValueSelected(T pickable) {
+            provider.onValueSelected(pickable);
+        }
+
+        /**
+         * Derive in-flight key of a given query, its exact search text.
+         * <p>
+         * Pickers create queries from search text only, override to account for other
+         * query parts when values are requested with richer queries.
+         *
+         * @param query
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        protected String keyFor(@NonNull Query query) {
+            return searchKeyOf(query);
+        }
+
+        /**
+         * Obtain number of loads requested from decorated provider
+         *
+         * @return
+         * @since 0.8.0
+         */
+        public synchronized int getLoadCount() {
+            return loads;
+        }
+
+        /**
+         * Obtain number of queries served by joining an in-flight load
+         *
+         * @return
+         * @since 0.8.0
+         */
+        public synchronized int getShareCount() {
+            return shares;
+        }
+
+        private void load(@NonNull String key, @NonNull Flight<T> flight, @NonNull Query query) {
+            Task<List<T>> task;
+            try {
+                task = provider.getValues(query, flight.cancellation.getToken());
+            } catch (Exception e) {
+                task = Tasks.forException(e);
+            }
+            task.addOnCompleteListener(DIRECT, result -> {
+                synchronized (this) {
+                    if (flights.get(key) == flight) {
+                        flights.remove(key);
+                    }
+                }
+                if (result.isSuccessful()) {
+                    flight.result.trySetResult(result.getResult());
+                } else {
+                    Exception error = result.getException();
+                    flight.result.trySetException(error != null ? error : new Exception());
+                }
+            });
+        }
+
+        private void release(@NonNull String key, @NonNull Flight<T> flight) {
+            synchronized (this) {
+                if (--flight.consumers > 0 || flight.result.getTask().isComplete()) {
+                    return;
+                }
+                if (flights.get(key) == flight) {
+                    flights.remove(key);
+                }
+            }
+            flight.cancellation.cancel();
+        }
+
+        private static class Flight<T> {
+            final CancellationTokenSource cancellation = new CancellationTokenSource();
+            final TaskCompletionSource<List<T>> result = new TaskCompletionSource<>();
+            int consumers = 0;
+        }
+    }
+
+    /**
+     * In memory {@link Pickable} provider.
+     * <p>
+     * Load all values once, index their folded names and descriptions and answer queries
+     * off the main thread by narrowing previous matches when a query extends
+     * previous search text.
+     *
+     * @since 0.8.0
+     */
+    public abstract static class LocalProvider<T extends Pickable> extends SimpleProvider<T> {
+        private Task<FoldedIndex<T>> index;
+
+        /**
+         * Load all {@link Pickable} values to be indexed
+         *
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        protected abstract Task<List<T>> loadValues();
+
+        @NonNull
+        @Override
+        public Task<List<T>> getValues(@NonNull Query query) {
+            return getValues(query, new CancellationTokenSource().getToken());
+        }
+
+        @NonNull
+        @Override
+        public Task<List<T>> getValues(@NonNull Query query, @NonNull CancellationToken token) {
+            return index().continueWith(getExecutor(), task -> {
+                FoldedIndex<T> values = task.getResult();
+                if (token.isCancellationRequested()) {
+                    return Collections.<T>emptyList();
+                }
+                return isFuzzy() ? values.rank(query) : values.filter(query);
+            });
+        }
+
+        /**
+         * Specifies whether values are matched with typo tolerance and ranked
+         * by {@link FuzzyMatcher} instead of plain substring matching
+         *
+         * @return
+         * @since 0.8.0
+         */
+        protected boolean isFuzzy() {
+            return false;
+        }
+
+        /**
+         * Drop loaded values, next query will reload and re-index them
+         *
+         * @since 0.8.0
+         */
+        public synchronized void invalidate() {
+            index = null;
+        }
+
+        private synchronized Task<FoldedIndex<T>> index() {
+            if (index == null || (index.isComplete() && !index.isSuccessful())) {
+                index = loadValues().continueWith(getExecutor(), task -> new FoldedIndex<>(task.getResult()));
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Normalised key index over {@link Pickable} names and descriptions.
+     * <p>
+     * Keys are folded once per value set through {@link Folding} and indexed by bigrams,
+     * queries are folded once per search and compared against pre-folded keys. Queries
+     * extending previous query only re-check previous matches.
+     *
+     * @since 0.8.0
+     */
+    public static class FoldedIndex<T extends Pickable> {
+        private final Locale locale;
+        private final List<T> values;
+        private final String[] keys;
+        private final SparseArray<int[]> grams = new SparseArray<>();
+        private String lastText;
+        private int[] lastMatches;
+        private int lastCount;
+
+        public FoldedIndex(@Nullable List<T> values) {
+            this(values, Locale.getDefault());
+        }
+
+        public FoldedIndex(@Nullable List<T> values, @NonNull Locale locale) {
+            this.locale = locale;
+            this.values = values != null ? new ArrayList<>(values) : new ArrayList<>();
+            this.keys = new String[this.values.size()];
+
+            // build keys and bigram postings
+            SparseArray<int[]> postings = new SparseArray<>();
+            for (int i = 0; i < keys.length; i++) {
+                T value = this.values.get(i);
+                String description = value.getDescription();
+                String name = Folding.fold(value.getName(), locale);
+                keys[i] = Common.Strings.isEmpty(description)
+                        ? name : name + "\n" + Folding.fold(description, locale);
+                for (int j = 0; j + 1 < keys[i].length(); j++) {
+                    int gram = gramOf(keys[i], j);
+                    int[] posting = postings.get(gram);
+                    if (posting == null) {
+                        posting = new int[]{0, 0, 0, 0, 0};
+                        postings.put(gram, posting);
+                    }
+                    // posting[0] holds the count, skip repeated grams of same key
+                    int count = posting[0];
+                    if (count > 0 && posting[count] == i) {
+                        continue;
+                    }
+                    if (count + 1 == posting.length) {
+                        posting = Arrays.copyOf(posting, posting.length * 2);
+                        postings.put(gram, posting);
+                    }
+                    posting[count + 1] = i;
+                    posting[0] = count + 1;
+                }
+            }
+
+            // trim postings
+            for (int i = 0; i < postings.size(); i++) {
+                int[] posting = postings.valueAt(i);
+                grams.put(postings.keyAt(i), Arrays.copyOfRange(posting, 1, posting[0] + 1));
+            }
+        }
+
+        /**
+         * Obtain values containing search text of a given query
+         *
+         * @param query
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        public List<T> filter(@NonNull Query query) {
+            return filter(Folding.fold(textOf(query), locale));
+        }
+
+        /**
+         * Obtain values fuzzy matching search text of a given query, best match first
+         *
+         * @param query
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        public List<T> rank(@NonNull Query query) {
+            return rank(Folding.fold(textOf(query), locale));
+        }
+
+        public int size() {
+            return values.size();
+        }
+
+        @NonNull
+        synchronized List<T> filter(@NonNull String text) {
+            // no search text, use all values
+            if (text.isEmpty()) {
+                lastText = null;
+                lastMatches = null;
+                return new ArrayList<>(values);
+            }
+
+            // narrow previous matches or rarest bigram candidates
+            int[] candidates;
+            int count;
+            if (lastText != null && text.startsWith(lastText)) {
+                candidates = lastMatches;
+                count = lastCount;
+            } else if (text.length() > 1) {
+                candidates = null;
+                for (int j = 0; j + 1 < text.length(); j++) {
+                    int[] posting = grams.get(gramOf(text, j));
+                    if (posting == null) {
+                        candidates = new int[0];
+                        break;
+                    }
+                    if (candidates == null || posting.length < candidates.length) {
+                        candidates = posting;
+                    }
+                }
+                count = candidates.length;
+            } else {
+                candidates = null;
+                count = keys.length;
+            }
+
+            // verify candidates
+            int[] matches = new int[count];
+            int found = 0;
+            for (int i = 0; i < count; i++) {
+                int position = candidates != null ? candidates[i] : i;
+                if (keys[position].contains(text)) {
+                    matches[found++] = position;
+                }
+            }
+
+            // remember for incremental narrowing
+            lastText = text;
+            lastMatches = matches;
+            lastCount = found;
+
+            List<T> filtered = new ArrayList<>(found);
+            for (int i = 0; i < found; i++) {
+                filtered.add(values.get(matches[i]));
+            }
+            return filtered;
+        }
+
+        @NonNull
+        synchronized List<T> rank(@NonNull String text) {
+            // no search text, use all values
+            if (text.isEmpty()) {
+                lastText = null;
+                lastMatches = null;
+                return new ArrayList<>(values);
+            }
+
+            // narrow previous matches, fuzzy matches of an extended query are a subset
+            boolean narrow = lastText != null && lastText.length() >= FuzzyMatcher.MIN_TYPO_LENGTH
+                    && text.startsWith(lastText);
+            int count = narrow ? lastCount : keys.length;
+
+            // score candidates
+            long[] scored = new long[count];
+            int found = 0;
+            for (int i = 0; i < count; i++) {
+                int position = narrow ? lastMatches[i] : i;
+                int score = FuzzyMatcher.score(keys[position], text);
+                if (score > 0) {
+                    // order by descending score then ascending position
+                    scored[found++] = ((long) (Integer.MAX_VALUE - score) << 32) | position;
+                }
+            }
+            Arrays.sort(scored, 0, found);
+
+            // remember for incremental narrowing
+            int[] matches = new int[found];
+            List<T> ranked = new ArrayList<>(found);
+            for (int i = 0; i < found; i++) {
+                matches[i] = (int) scored[i];
+                ranked.add(values.get(matches[i]));
+            }
+            Arrays.sort(matches);
+            lastText = text;
+            lastMatches = matches;
+            lastCount = found;
+            return ranked;
+        }
+
+        private static int gramOf(@NonNull String key, int index) {
+            return (key.charAt(index) << 16) | key.charAt(index + 1);
+        }
+    }
+
+    /**
+     * Cursor backed {@link Pickable} provider.
+     * <p>
+     * Values are queried(e.g from SQLite) into a cursor whose rows are bound directly,
+     * without building a {@link Pickable} per row, only clicked rows are created
+     * through {@link #fromCursor(Cursor)}. Cursor must name its columns
+     * {@link #COLUMN_OBJECT_ID}, {@link #COLUMN_NAME} and optionally
+     * {@link #COLUMN_DESCRIPTION} and {@link #COLUMN_COLOR}(e.g using {@code AS}).
+     *
+     * @since 0.8.0
+     */
+    public abstract static class CursorProvider<T extends Pickable> extends SimpleProvider<T> {
+        public static final String COLUMN_OBJECT_ID = "object_id";
+        public static final String COLUMN_NAME = "name";
+        public static final String COLUMN_DESCRIPTION = "description";
+        public static final String COLUMN_COLOR = "color";
+
+        /**
+         * Query values of a given query, invoked on {@link ValuePicker#getExecutor()}.
+         * <p>
+         * Match query text with an indexed prefix {@code LIKE ? ESCAPE '\'} (see {@link #likeOf(Query)})
+         * or a full text {@code MATCH}, and pass signal to the database to abort superseded queries.
+         *
+         * @param query
+         * @param signal
+         * @return
+         */
+        @NonNull
+        protected abstract Cursor query(@NonNull Query query, @NonNull CancellationSignal signal);
+
+        /**
+         * Create value of current cursor row, invoked for clicked rows only
+         *
+         * @param cursor
+         * @return
+         */
+        @NonNull
+        protected abstract T fromCursor(@NonNull Cursor cursor);
+
+        /**
+         * Cancellable cursor of a given query, its first window filled off the main thread
+         *
+         * @param query
+         * @param token
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        public Task<Cursor> getCursor(@NonNull Query query, @NonNull CancellationToken token) {
+            final CancellationSignal signal = new CancellationSignal();
+            token.onCanceledRequested(signal::cancel);
+            return Tasks.call(getExecutor(), () -> {
+                Cursor cursor = query(query, signal);
+                cursor.getCount();
+                return cursor;
+            });
+        }
+
+        /**
+         * Materialized values of a given query, prefer {@link #getCursor(Query, CancellationToken)}
+         *
+         * @param query
+         * @return
+         */
+        @NonNull
+        @Override
+        public Task<List<T>> getValues(@NonNull Query query) {
+            return Tasks.call(getExecutor(), () -> {
+                try (Cursor cursor = query(query, new CancellationSignal())) {
+                    List<T> values = new ArrayList<>(cursor.getCount());
+                    while (cursor.moveToNext()) {
+                        values.add(fromCursor(cursor));
+                    }
+                    return values;
+                }
+            });
+        }
+
+        /**
+         * Obtain escaped prefix {@code LIKE} pattern of a given query text
+         *
+         * @param query
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        public static String likeOf(@Nullable Query query) {
+            return escape(textOf(query)) + '%';
+        }
+
+        @NonNull
+        static String escape(@NonNull String text) {
+            StringBuilder like = new StringBuilder(text.length() + 1);
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '%' || c == '_' || c == '\\') {
+                    like.append('\\');
+                }
+                like.append(c);
+            }
+            return like.toString();
+        }
+    }
+
+    /**
+     * A {@link RecyclerView.Adapter} binding {@link CursorProvider} cursor rows.
+     * <p>
+     * Each view holder reuses a single {@link CursorRow} and its character buffers, so
+     * memory is bound by visible rows rather than cursor size.
+     *
+     * @since 0.8.0
+     */
+    public static class PickableCursorAdapter extends RecyclerView.Adapter<PickableAdapter.PickableViewHolder> {
+        private final CursorProvider provider;
+        private final OnClickListener listener;
+        private final OnClickListener rowListener = this::onRowClick;
+        private SelectionSet selection;
+        private Cursor cursor;
+        private int objectIdColumn;
+        private int nameColumn;
+        private int descriptionColumn;
+        private int colorColumn;
+
+        public PickableCursorAdapter(@NonNull CursorProvider provider, @NonNull OnClickListener listener) {
+            this.provider = provider;
+            this.listener = listener;
+        }
+
+        /**
+         * Replace bound cursor, previous cursor is closed
+         *
+         * @param cursor
+         * @since 0.8.0
+         */
+        public void swapCursor(@Nullable Cursor cursor) {
+            Cursor previous = this.cursor;
+            this.cursor = cursor;
+            if (cursor != null) {
+                objectIdColumn = cursor.getColumnIndexOrThrow(CursorProvider.COLUMN_OBJECT_ID);
+                nameColumn = cursor.getColumnIndexOrThrow(CursorProvider.COLUMN_NAME);
+                descriptionColumn = cursor.getColumnIndex(CursorProvider.COLUMN_DESCRIPTION);
+                colorColumn = cursor.getColumnIndex(CursorProvider.COLUMN_COLOR);
+            }
+            notifyDataSetChanged();
+            if (previous != null && previous != cursor) {
+                previous.close();
+            }
+        }
+
+        /**
+         * Set selection to highlight bound rows from
+         *
+         * @param selection
+         * @since 0.8.0
+         */
+        public void setSelection(@Nullable SelectionSet selection) {
+            this.selection = selection;
+            notifySelectionChanged();
+        }
+
+        /**
+         * Rebind selection state of all rows
+         *
+         * @since 0.8.0
+         */
+        public void notifySelectionChanged() {
+            notifyItemRangeChanged(0, getItemCount(), PickableAdapter.PAYLOAD_SELECTION);
+        }
+
+        @Override
+        public int getItemCount() {
+            return cursor != null ? cursor.getCount() : 0;
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            return rowStyle.ordinal();
+        }
+
+        @NonNull
+        @Override
+        public PickableAdapter.PickableViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            return PickableAdapter.PickableViewHolder.create(parent, viewType);
+        }
+
+        @Override
+        public void onBindViewHolder(
+                @NonNull PickableAdapter.PickableViewHolder holder, int position, @NonNull List<Object> payloads) {
+            // partially bind selection changes
+            if (!payloads.isEmpty() && payloads.contains(PickableAdapter.PAYLOAD_SELECTION)) {
+                holder.bindSelection(selection);
+                return;
+            }
+            onBindViewHolder(holder, position);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull PickableAdapter.PickableViewHolder holder, int position) {
+            if (cursor == null || !cursor.moveToPosition(position)) {
+                return;
+            }
+            if (holder.cursorRow == null) {
+                holder.cursorRow = new CursorRow();
+            }
+            CursorRow row = holder.cursorRow;
+            row.read(cursor, objectIdColumn, nameColumn, descriptionColumn, colorColumn);
+            holder.bind(row, rowListener);
+            holder.bindSelection(selection);
+            metrics.onRowBound();
+        }
+
+        private void onRowClick(@NonNull Pickable pickable) {
+            CursorRow row = (CursorRow) pickable;
+            if (cursor != null && !cursor.isClosed() && cursor.moveToPosition(row.position)) {
+                listener.onClick(provider.fromCursor(cursor));
+            }
+        }
+    }
+
+    /**
+     * A reusable {@link Pickable} view of a single cursor row
+     *
+     * @since 0.8.0
+     */
+    static class CursorRow implements Pickable {
+        final CharArrayBuffer name = new CharArrayBuffer(64);
+        final CharArrayBuffer description = new CharArrayBuffer(64);
+        String objectId;
+        Integer color;
+        int position;
+
+        void read(@NonNull Cursor cursor, int objectIdColumn, int nameColumn, int descriptionColumn, int colorColumn) {
+            position = cursor.getPosition();
+            objectId = cursor.getString(objectIdColumn);
+            cursor.copyStringToBuffer(nameColumn, name);
+            if (descriptionColumn >= 0) {
+                cursor.copyStringToBuffer(descriptionColumn, description);
+            } else {
+                description.sizeCopied = 0;
+            }
+            if (colorColumn < 0 || cursor.isNull(colorColumn)) {
+                color = null;
+            } else if (cursor.getType(colorColumn) == Cursor.FIELD_TYPE_INTEGER) {
+                color = cursor.getInt(colorColumn);
+            } else {
+                color = avatars.parseColor(cursor.getString(colorColumn));
+            }
+        }
+
+        @NonNull
+        @Override
+        public String getName() {
+            return new String(name.data, 0, name.sizeCopied);
+        }
+
+        @Nullable
+        @Override
+        public String getDescription() {
+            return description.sizeCopied > 0 ? new String(description.data, 0, description.sizeCopied) : null;
+        }
+
+        @Nullable
+        @Override
+        public String getColor() {
+            return color != null ? String.format(Locale.ROOT, "#%08X", color) : null;
+        }
+
+        @NonNull
+        @Override
+        public String getObjectId() {
+            return objectId != null ? objectId : String.valueOf(position);
+        }
+    }
+
+    /**
+     * On device full text index of {@link Pickable} values.
+     * <p>
+     * Values are kept in a SQLite table alongside an FTS4 table of their folded name
+     * and description. Queries match every typed token as a prefix(e.g "dar hosp") and
+     * rank name prefix matches first, then name word prefix matches, then other name
+     * matches and finally description only matches. Values are replaced atomically, so
+     * queries see either previous or new values, and updated incrementally by
+     * {@link Pickable#getObjectId()}.
+     * <p>
+     * All methods, except {@link #build(Provider)}, access the database and must be
+     * invoked off the main thread.
+     *
+     * @since 0.8.0
+     */
+    public static class FtsIndex extends SQLiteOpenHelper {
+        private static final int VERSION = 1;
+        private static final int BATCH_SIZE = 500;
+        private static final String VALUES = "pickable_values";
+        private static final String SEARCH = "pickable_search";
+        private static final String COLUMNS = "v._id AS _id, v.object_id AS " + CursorProvider.COLUMN_OBJECT_ID
+                + ", v.name AS " + CursorProvider.COLUMN_NAME
+                + ", v.description AS " + CursorProvider.COLUMN_DESCRIPTION
+                + ", v.color AS " + CursorProvider.COLUMN_COLOR;
+
+        private static Executor indexer;
+
+        public FtsIndex(@NonNull Context context, @NonNull String name) {
+            super(context.getApplicationContext(), "pickable_fts_" + name + ".db", null, VERSION);
+            setWriteAheadLoggingEnabled(true);
+        }
+
+        @Override
+        public void onCreate(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE " + VALUES + " (_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                    + "object_id TEXT NOT NULL UNIQUE, name TEXT NOT NULL, description TEXT, color TEXT)");
+            db.execSQL("CREATE INDEX " + VALUES + "_name ON " + VALUES + " (name)");
+            db.execSQL("CREATE VIRTUAL TABLE " + SEARCH + " USING fts4(name, description)");
+        }
+
+        @Override
+        public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+            db.execSQL("DROP TABLE IF EXISTS " + SEARCH);
+            db.execSQL("DROP TABLE IF EXISTS " + VALUES);
+            onCreate(db);
+        }
+
+        /**
+         * Replace indexed values with values of a given provider, on a dedicated indexing
+         * executor so that pickers keep searching on {@link ValuePicker#getExecutor()}
+         *
+         * @param provider
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        public Task<Integer> build(@NonNull Provider provider) {
+            return build(provider, getIndexer());
+        }
+
+        /**
+         * Replace indexed values with values of a given provider, on a given executor.
+         * <p>
+         * All pages of a {@link PagedProvider} are loaded, in order, before indexing.
+         *
+         * @param provider
+         * @param executor
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        @SuppressWarnings("unchecked")
+        public Task<Integer> build(@NonNull Provider provider, @NonNull Executor executor) {
+            Task<List<Pickable>> values = provider instanceof PagedProvider
+                    ? pagesOf((PagedProvider) provider, Query.create(), 0, new ArrayList<>(), executor)
+                    : provider.getValues(Query.create());
+            return values.continueWith(executor, result -> {
+                List<Pickable> loaded = result.getResult();
+                replaceAll(loaded != null ? loaded : Collections.emptyList());
+                return size();
+            });
+        }
+
+        /**
+         * Load pages of a paged provider from a given page, until a page shorter than page size
+         */
+        @NonNull
+        @SuppressWarnings("unchecked")
+        private static Task<List<Pickable>> pagesOf(
+                @NonNull final PagedProvider provider, @NonNull final Query query, final int page,
+                @NonNull final List<Pickable> values, @NonNull final Executor executor) {
+            CancellationToken token = new CancellationTokenSource().getToken();
+            Task<List<Pickable>> loaded = provider.getValues(query, page, token);
+            return loaded.continueWithTask(executor, result -> {
+                List<Pickable> pageValues = result.getResult();
+                if (pageValues == null || pageValues.isEmpty()) {
+                    return Tasks.forResult(values);
+                }
+                values.addAll(pageValues);
+                if (pageValues.size() < provider.getPageSize()) {
+                    return Tasks.forResult(values);
+                }
+                return pagesOf(provider, query, page + 1, values, executor);
+            });
+        }
+
+        /**
+         * Replace all indexed values, in a single transaction
+         *
+         * @param values
+         * @since 0.8.0
+         */
+        public void replaceAll(@NonNull Collection<? extends Pickable> values) {
+            // swap atomically, write ahead log keeps readers on previous values meanwhile
+            SQLiteDatabase db = getWritableDatabase();
+            db.beginTransaction();
+            try {
+                db.delete(VALUES, null, null);
+                db.delete(SEARCH, null, null);
+                write(values, false);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            db.execSQL("INSERT INTO " + SEARCH + "(" + SEARCH + ") VALUES('optimize')");
+        }
+
+        /**
+         * Insert new or update existing values, matched by object id
+         *
+         * @param values
+         * @since 0.8.0
+         */
+        public void upsert(@NonNull Collection<? extends Pickable> values) {
+            write(values, true);
+        }
+
+        /**
+         * Delete values of given object ids
+         *
+         * @param objectIds
+         * @since 0.8.0
+         */
+        public void delete(@NonNull Collection<String> objectIds) {
+            SQLiteDatabase db = getWritableDatabase();
+            try (SQLiteStatement select = db.compileStatement("SELECT _id FROM " + VALUES + " WHERE object_id = ?");
+                 SQLiteStatement deleteValue = db.compileStatement("DELETE FROM " + VALUES + " WHERE _id = ?");
+                 SQLiteStatement deleteSearch = db.compileStatement("DELETE FROM " + SEARCH + " WHERE docid = ?")) {
+                delete(db, objectIds, select, deleteValue, deleteSearch);
+            }
+        }
+
+        private void delete(@NonNull SQLiteDatabase db, @NonNull Collection<String> objectIds, @NonNull SQLiteStatement select,
+                            @NonNull SQLiteStatement deleteValue, @NonNull SQLiteStatement deleteSearch) {
+            Iterator<String> iterator = objectIds.iterator();
+            while (iterator.hasNext()) {
+                db.beginTransaction();
+                try {
+                    for (int i = 0; i < BATCH_SIZE && iterator.hasNext(); i++) {
+                        long id = idOf(select, iterator.next());
+                        if (id < 0) {
+                            continue;
+                        }
+                        deleteValue.bindLong(1, id);
+                        deleteValue.executeUpdateDelete();
+                        deleteSearch.bindLong(1, id);
+                        deleteSearch.executeUpdateDelete();
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+        }
+
+        /**
+         * Query ranked values matching a given query, columns are named as
+         * expected by {@link CursorProvider}
+         *
+         * @param query
+         * @param signal
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        public Cursor query(@NonNull Query query, @Nullable CancellationSignal signal) {
+            SQLiteDatabase db = getReadableDatabase();
+            String text = Folding.fold(textOf(query));
+            String match = matchOf(text);
+            if (match.isEmpty()) {
+                return db.rawQuery("SELECT " + COLUMNS + " FROM " + VALUES + " v ORDER BY v.name", null, signal);
+            }
+            String like = CursorProvider.escape(text);
+            return db.rawQuery("SELECT " + COLUMNS + " FROM " + SEARCH
+                    + " JOIN " + VALUES + " v ON v._id = " + SEARCH + ".docid"
+                    + " WHERE " + SEARCH + " MATCH ?"
+                    + " ORDER BY CASE"
+                    + " WHEN " + SEARCH + ".name LIKE ? ESCAPE '\\' THEN 0"
+                    + " WHEN " + SEARCH + ".name LIKE ? ESCAPE '\\' THEN 1"
+                    + " WHEN substr(offsets(" + SEARCH + "), 1, 2) = '0 ' THEN 2"
+                    + " ELSE 3 END, length(" + SEARCH + ".name), v.name",
+                    new String[]{match, like + '%', "% " + like + '%'}, signal);
+        }
 
-            PickableViewHolder(@NonNull View valueView) {
-                super(valueView);
-                valueView.setOnClickListener(this);
-                ivItemValueAvatar = valueView.findViewById(R.id.ivPickableItemAvatar);
-                tvItemValueName = valueView.findViewById(R.id.tvPickableItemName);
-                tvItemValueDescription = valueView.findViewById(R.id.tvPickableItemDescription);
+        /**
+         * Obtain number of indexed values
+         *
+         * @return
+         * @since 0.8.0
+         */
+        public int size() {
+            return (int) DatabaseUtils.queryNumEntries(getReadableDatabase(), VALUES);
+        }
+
+        private void write(@NonNull Collection<? extends Pickable> values, boolean update) {
+            SQLiteDatabase db = getWritableDatabase();
+            try (SQLiteStatement select = db.compileStatement("SELECT _id FROM " + VALUES + " WHERE object_id = ?");
+                 SQLiteStatement insertValue = db.compileStatement(
+                         "INSERT INTO " + VALUES + " (object_id, name, description, color) VALUES (?, ?, ?, ?)");
+                 SQLiteStatement insertSearch = db.compileStatement(
+                         "INSERT INTO " + SEARCH + " (docid, name, description) VALUES (?, ?, ?)");
+                 SQLiteStatement updateValue = db.compileStatement(
+                         "UPDATE " + VALUES + " SET name = ?, description = ?, color = ? WHERE _id = ?");
+                 SQLiteStatement updateSearch = db.compileStatement(
+                         "UPDATE " + SEARCH + " SET name = ?, description = ? WHERE docid = ?")) {
+                write(db, values, update, select, insertValue, insertSearch, updateValue, updateSearch);
             }
+        }
 
-            void bind(Pickable pickable) {
-                String name = pickable.getName();
-                String description = pickable.getDescription();
-                String letter = String.valueOf(name.charAt(0));
-                Integer color = Common.Colors.parseColor(pickable.getColor());
+        private void write(@NonNull SQLiteDatabase db, @NonNull Collection<? extends Pickable> values, boolean update,
+                           @NonNull SQLiteStatement select, @NonNull SQLiteStatement insertValue,
+                           @NonNull SQLiteStatement insertSearch, @NonNull SQLiteStatement updateValue,
+                           @NonNull SQLiteStatement updateSearch) {
+            // write in batches, nested within a replacing transaction if any
+            Iterator<? extends Pickable> iterator = values.iterator();
+            while (iterator.hasNext()) {
+                db.beginTransaction();
+                try {
+                    for (int i = 0; i < BATCH_SIZE && iterator.hasNext(); i++) {
+                        Pickable value = PickableRow.unwrap(iterator.next());
+                        String name = value.getName();
+                        String description = value.getDescription();
+                        long id = update ? idOf(select, value.getObjectId()) : -1;
+                        if (id < 0) {
+                            bind(insertValue, 1, value.getObjectId(), name, description, value.getColor());
+                            id = insertValue.executeInsert();
+                            bind(insertSearch, 2, Folding.fold(name), Folding.fold(description));
+                            insertSearch.bindLong(1, id);
+                            insertSearch.executeInsert();
+                        } else {
+                            bind(updateValue, 1, name, description, value.getColor());
+                            updateValue.bindLong(4, id);
+                            updateValue.executeUpdateDelete();
+                            bind(updateSearch, 1, Folding.fold(name), Folding.fold(description));
+                            updateSearch.bindLong(3, id);
+                            updateSearch.executeUpdateDelete();
+                        }
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+        }
 
-                // set avatar
-                TextDrawable drawable = Common.Drawables.letterAvatarFor(letter, color);
-                ivItemValueAvatar.setImageDrawable(drawable);
+        private static void bind(@NonNull SQLiteStatement statement, int index, String... values) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null) {
+                    statement.bindNull(index + i);
+                } else {
+                    statement.bindString(index + i, values[i]);
+                }
+            }
+        }
 
-                // set name
-                tvItemValueName.setText(name);
+        private static long idOf(@NonNull SQLiteStatement select, @NonNull String objectId) {
+            select.bindString(1, objectId);
+            try {
+                return select.simpleQueryForLong();
+            } catch (SQLiteDoneException e) {
+                return -1;
+            }
+        }
 
-                //set description
-                description = Common.Strings.valueOr(description, name);
-                tvItemValueDescription.setText(description);
+        @NonNull
+        private static synchronized Executor getIndexer() {
+            if (indexer == null) {
+                indexer = Executors.newSingleThreadExecutor();
             }
+            return indexer;
+        }
 
-            @Override
-            public void onClick(View v) {
-                Pickable pickable = getItem(getAdapterPosition());
-                if (listener != null) {
-                    listener.onClick(pickable);
+        @NonNull
+        static String matchOf(@NonNull String text) {
+            // match every token as a prefix
+            StringBuilder match = new StringBuilder();
+            int start = -1;
+            for (int i = 0; i <= text.length(); i++) {
+                boolean token = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+                if (token && start < 0) {
+                    start = i;
+                } else if (!token && start >= 0) {
+                    match.append(match.length() > 0 ? " " : "").append(text, start, i).append('*');
+                    start = -1;
                 }
             }
+            return match.toString();
         }
     }
 
     /**
-     * {@link DialogFragment} for {@link Pickable} values
+     * {@link CursorProvider} of values ranked by a {@link FtsIndex}
+     *
+     * @since 0.8.0
      */
-    public static class PickableDialogFragment extends DialogFragment
-            implements OnClickListener {
-        public static final String TAG = PickableDialogFragment.class.getSimpleName();
+    public abstract static class FtsProvider<T extends Pickable> extends CursorProvider<T> {
+        private final FtsIndex index;
 
-        private StateLayout slPickableList;
-        private SearchView svPickableListSearch;
-        private AppCompatTextView etPickableListTitle;
-        private RecyclerView rvPickableListValues;
-        private Query query = Query.create();
-        private Provider provider;
-        private PickableAdapter adapter;
+        public FtsProvider(@NonNull FtsIndex index) {
+            this.index = index;
+        }
 
-        public PickableDialogFragment() {
-            setRetainInstance(true);
+        @NonNull
+        public FtsIndex getIndex() {
+            return index;
+        }
+
+        @NonNull
+        @Override
+        protected Cursor query(@NonNull Query query, @NonNull CancellationSignal signal) {
+            return index.query(query, signal);
+        }
+    }
+
+    /**
+     * Disk backed snapshot of {@link Pickable} values.
+     * <p>
+     * Values are stored in a compact binary format holding object id, name, description
+     * and colour of each value, and read back through memory mapped I/O.
+     *
+     * @since 0.8.0
+     */
+    public static class SnapshotStore {
+        private static final int MAGIC = 0x56504b31;
+
+        private final File file;
+        private long size;
+        private long loadTime = 0;
+
+        public SnapshotStore(@NonNull Context context, @NonNull String name) {
+            File directory = new File(context.getFilesDir(), "pickables");
+            this.file = new File(directory, name + ".snapshot");
+            this.size = file.length();
+        }
+
+        public boolean exists() {
+            return file.exists();
         }
 
         /**
-         * Instantiate new dialog picker in not exists
+         * Replace snapshot with given values
+         *
+         * @param values
+         * @throws IOException
+         * @since 0.8.0
+         */
+        public synchronized void write(@NonNull List<? extends Pickable> values) throws IOException {
+            File directory = file.getParentFile();
+            if (directory != null && !directory.exists() && !directory.mkdirs()) {
+                throw new IOException("Unable to create " + directory);
+            }
+
+            // write to temporary file
+            File temp = new File(file.getPath() + ".tmp");
+            try (DataOutputStream out =
+                         new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(values.size());
+                for (Pickable value : values) {
+                    writeString(out, value.getObjectId());
+                    writeString(out, value.getName());
+                    writeString(out, value.getDescription());
+                    writeString(out, value.getColor());
+                }
+            }
+
+            // swap snapshot
+            if (!temp.renameTo(file)) {
+                throw new IOException("Unable to replace " + file);
+            }
+            size = file.length();
+        }
+
+        /**
+         * Read snapshot values
+         *
+         * @return snapshot values or empty list if no snapshot
+         * @throws IOException
+         * @since 0.8.0
+         */
+        @NonNull
+        public synchronized List<Pickable> read() throws IOException {
+            if (!file.exists()) {
+                return new ArrayList<>();
+            }
+
+            long start = SystemClock.elapsedRealtime();
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                 FileChannel channel = raf.getChannel()) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.getInt() != MAGIC) {
+                    throw new IOException("Invalid snapshot " + file);
+                }
+                int count = readCount(buffer);
+                List<Pickable> values = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    String objectId = readString(buffer);
+                    String name = readString(buffer);
+                    String description = readString(buffer);
+                    String color = readString(buffer);
+                    values.add(new SnapshotPickable(objectId, name, description, color));
+                }
+                size = channel.size();
+                return values;
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Truncated snapshot " + file, e);
+            } finally {
+                loadTime = SystemClock.elapsedRealtime() - start;
+            }
+        }
+
+        /**
+         * Delete snapshot
+         *
+         * @since 0.8.0
+         */
+        public synchronized void clear() {
+            if (file.exists() && file.delete()) {
+                size = 0;
+            }
+        }
+
+        /**
+         * Obtain snapshot size, in bytes, as found on open or last written or read
          *
          * @return
-         * @since 0.1.0
+         * @since 0.8.0
          */
-        public static PickableDialogFragment newInstance() {
-            // TODO improve picker intent
-            final Bundle args = new Bundle();
-            args.getString("ID", PickableDialogFragment.TAG);
-            final PickableDialogFragment fragment = new PickableDialogFragment();
-            fragment.setArguments(args);
-            return fragment;
+        public synchronized long getSize() {
+            return size;
+        }
+
+        /**
+         * Obtain time, in milliseconds, taken by last read
+         *
+         * @return
+         * @since 0.8.0
+         */
+        public synchronized long getLoadTime() {
+            return loadTime;
+        }
+
+        static void writeString(@NonNull DataOutputStream out, @Nullable String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        /**
+         * Read count of stored values, each taking at least a length per field
+         */
+        static int readCount(@NonNull ByteBuffer buffer) throws IOException {
+            int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining() / 4) {
+                throw new IOException("Invalid snapshot");
+            }
+            return count;
         }
 
         @Nullable
+        static String readString(@NonNull ByteBuffer buffer) throws IOException {
+            int length = buffer.getInt();
+            if (length == -1) {
+                return null;
+            }
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IOException("Invalid snapshot");
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * A {@link Pickable} value read from a {@link SnapshotStore}
+     *
+     * @since 0.8.0
+     */
+    public static class SnapshotPickable implements Pickable {
+        private final String objectId;
+        private final String name;
+        private final String description;
+        private final String color;
+
+        public SnapshotPickable(
+                @Nullable String objectId, @Nullable String name,
+                @Nullable String description, @Nullable String color) {
+            this.objectId = objectId != null ? objectId : "";
+            this.name = name != null ? name : "";
+            this.description = description;
+            this.color = color;
+        }
+
+        @NonNull
         @Override
-        public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
-            // inflate
-            View view = inflater.inflate(R.layout.list_pickable, container, false);
+        public String getName() {
+            return name;
+        }
 
-            // setup state layout
-            slPickableList = view.findViewById(R.id.slPickableList);
+        @Nullable
+        @Override
+        public String getDescription() {
+            return description;
+        }
 
-            // obtain required views
-            svPickableListSearch = view.findViewById(R.id.svPickableListSearch);
-            rvPickableListValues = view.findViewById(R.id.content_pickable);
-            etPickableListTitle = view.findViewById(R.id.etPickableListTitle);
+        @Nullable
+        @Override
+        public String getColor() {
+            return color;
+        }
 
-            // bind adapters
-            adapter = new PickableAdapter(this);
-            rvPickableListValues.setAdapter(adapter);
+        @NonNull
+        @Override
+        public String getObjectId() {
+            return objectId;
+        }
 
-            // return views
-            return view;
+        @Override
+        public String toString() {
+            return "SnapshotPickable{" +
+                    "objectId='" + objectId + '\'' +
+                    ", name='" + name + '\'' +
+                    '}';
+        }
+    }
+
+    /**
+     * Offline first {@link Pickable} provider.
+     * <p>
+     * Stream initial values from last known {@link SnapshotStore} snapshot while a refresh
+     * of the decorated provider runs in background, then replace shown values and the snapshot
+     * with refreshed values. Searches fall back to filtering the snapshot when decorated
+     * provider fails(e.g offline).
+     *
+     * @since 0.8.0
+     */
+    public abstract static class SnapshotProvider<T extends Pickable> implements StreamingProvider<T> {
+        private final Provider<T> provider;
+        private final SnapshotStore store;
+
+        public SnapshotProvider(@NonNull Context context, @NonNull String name, @NonNull Provider<T> provider) {
+            this.provider = provider;
+            this.store = new SnapshotStore(context.getApplicationContext(), name);
+        }
+
+        /**
+         * Convert a snapshot value into provider value
+         *
+         * @param snapshot
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        protected abstract T fromSnapshot(@NonNull Pickable snapshot);
+
+        @NonNull
+        public SnapshotStore getStore() {
+            return store;
         }
 
         @Override
-        public void onActivityCreated(@Nullable Bundle savedInstanceState) {
-            super.onActivityCreated(savedInstanceState);
+        public String getTitle() {
+            return provider.getTitle();
+        }
 
-            // set search hint
-            String searchHint = provider.getSearchHint();
-            if (Common.Strings.isEmpty(searchHint)) {
-                searchHint = getString(R.string.hint_list_values_search);
+        @Override
+        public String getSearchHint() {
+            return provider.getSearchHint();
+        }
+
+        @Override
+        public int getThreshold() {
+            return provider.getThreshold();
+        }
+
+        @Override
+        public long getDebounce() {
+            return provider.getDebounce();
+        }
+
+        @NonNull
+        @Override
+        public LoadingMode getLoadingMode() {
+            return provider.getLoadingMode();
+        }
+
+        @NonNull
+        @Override
+        public List<T> prepare(@NonNull Query query, @NonNull List<T> values) {
+            return provider.prepare(query, values);
+        }
+
+        @Override
+        public void stream(@NonNull Query query, @NonNull CancellationToken token, @NonNull Emitter<T> emitter) {
+            final String text = Folding.fold(textOf(query));
+            final Task<List<T>> fresh = provider.getValues(query, token);
+            if (text.isEmpty()) {
+                refresh(fresh);
             }
-            svPickableListSearch.setQueryHint(searchHint);
 
-            // Set SearchView QueryTextListener
-            svPickableListSearch.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
-                @Override
-                public boolean onQueryTextSubmit(String q) {
-                    dismissKeyboard(svPickableListSearch);
-                    query = Common.Strings.isEmpty(q) ? Query.create() : Query.create(q);
-                    if (q.length() >= provider.getThreshold()) {
-                        search();
+            // show snapshot first, then replace it with refreshed values
+            if (text.isEmpty() && store.exists()) {
+                snapshot(text).addOnCompleteListener(getExecutor(), shown -> {
+                    final boolean offline = shown.isSuccessful() && !fresh.isSuccessful();
+                    if (offline) {
+                        emitter.onBatch(shown.getResult());
                     }
-                    return true;
-                }
+                    fresh.addOnCompleteListener(getExecutor(), result -> {
+                        if (result.isSuccessful()) {
+                            emitter.onReplace(valuesOf(result));
+                            emitter.onComplete();
+                        } else if (offline && !result.isCanceled()) {
+                            emitter.onComplete();
+                        } else {
+                            emitter.onError(errorOf(result));
+                        }
+                    });
+                });
+                return;
+            }
 
-                @Override
-                public boolean onQueryTextChange(String q) {
-                    query = Common.Strings.isEmpty(q) ? Query.create() : Query.create(q);
-                    if (q.length() >= provider.getThreshold()) {
-                        search();
-                    }
-                    return true;
+            // fallback to snapshot on failure
+            fresh.addOnCompleteListener(getExecutor(), result -> {
+                if (result.isSuccessful() || result.isCanceled() || !store.exists()) {
+                    emit(result, emitter);
+                    return;
                 }
+                snapshot(text).addOnCompleteListener(getExecutor(), shown -> emit(shown, emitter));
             });
+        }
 
-            // Set focus on the SearchView and open the keyboard
-            svPickableListSearch.setOnQueryTextFocusChangeListener((view, hasFocus) -> {
-                if (hasFocus) {
-                    showKeyboard(view.findFocus());
+        @NonNull
+        @Override
+        public void onValueSelected(T pickable) {
+            provider.onValueSelected(pickable);
+        }
+
+        private void refresh(@NonNull Task<List<T>> task) {
+            task.addOnSuccessListener(getExecutor(), values -> {
+                try {
+                    store.write(values != null ? values : Collections.emptyList());
+                } catch (IOException e) {
+                    // ignore, keep last known snapshot
                 }
             });
+        }
 
-            // set title
-            String title = provider.getTitle();
-            if (Common.Strings.isEmpty(title)) {
-                title = getString(R.string.text_pickable_list_title);
+        private void emit(@NonNull Task<List<T>> result, @NonNull Emitter<T> emitter) {
+            if (result.isSuccessful()) {
+                emitter.onBatch(valuesOf(result));
+                emitter.onComplete();
+            } else {
+                emitter.onError(errorOf(result));
             }
-            etPickableListTitle.setText(title);
+        }
 
-            // bind recycler adapter & values
-            search();
+        @NonNull
+        private List<T> valuesOf(@NonNull Task<List<T>> result) {
+            List<T> values = result.getResult();
+            return values != null ? values : Collections.emptyList();
         }
 
-        @Override
-        public void onStart() {
-            super.onStart();
-            try {
-                Dialog dialog = getDialog();
-                Window window = dialog.getWindow();
-                window.setLayout(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
-            } catch (Exception e) {
-                // ignore
+        @NonNull
+        private Exception errorOf(@NonNull Task<List<T>> result) {
+            Exception error = result.getException();
+            return error != null ? error : new Exception();
+        }
+
+        private Task<List<T>> snapshot(@NonNull final String text) {
+            return Tasks.call(getExecutor(), () -> {
+                List<T> values = new ArrayList<>();
+                for (Pickable snapshot : store.read()) {
+                    if (text.isEmpty() || Folding.matches(snapshot, text)) {
+                        values.add(fromSnapshot(snapshot));
+                    }
+                }
+                return values;
+            });
+        }
+
+    }
+
+    /**
+     * Disk backed recently selected {@link Pickable} values.
+     * <p>
+     * Selections are counted per object id and ranked by frecency, i.e selection count
+     * decayed by time since last selection, so values picked often and lately come first.
+     * Values are kept in memory once read and stored in a compact binary format.
+     *
+     * @since 0.8.0
+     */
+    public static class RecentStore {
+        public static final int DEFAULT_MAX_SIZE = 32;
+        public static final long DEFAULT_HALF_LIFE = 7 * 24 * 60 * 60 * 1000L;
+        private static final int MAGIC = 0x56505231;
+
+        private final File file;
+        private final int maxSize;
+        private final long halfLife;
+        private List<Recent> recents;
+
+        public RecentStore(@NonNull Context context, @NonNull String name) {
+            this(context, name, DEFAULT_MAX_SIZE, DEFAULT_HALF_LIFE);
+        }
+
+        /**
+         * Instantiate recent store
+         *
+         * @param context
+         * @param name     store name, one per provider
+         * @param maxSize  maximum number of kept values
+         * @param halfLife time, in milliseconds, after which a selection counts half
+         * @since 0.8.0
+         */
+        public RecentStore(@NonNull Context context, @NonNull String name, int maxSize, long halfLife) {
+            File directory = new File(context.getFilesDir(), "pickables");
+            this.file = new File(directory, name + ".recents");
+            this.maxSize = maxSize;
+            this.halfLife = halfLife;
+        }
+
+        /**
+         * Record selection of a given value
+         *
+         * @param pickable
+         * @throws IOException
+         * @since 0.8.0
+         */
+        public synchronized void record(@NonNull Pickable pickable) throws IOException {
+            List<Recent> recents = load();
+            long now = System.currentTimeMillis();
+            Pickable value = PickableRow.unwrap(pickable);
+            Recent recent = null;
+            for (Recent candidate : recents) {
+                if (candidate.objectId.equals(value.getObjectId())) {
+                    recent = candidate;
+                    break;
+                }
+            }
+            if (recent == null) {
+                recent = new Recent(value.getObjectId(), 0, now);
+                recents.add(recent);
+            }
+            recent.name = value.getName();
+            recent.description = value.getDescription();
+            recent.color = value.getColor();
+            recent.count++;
+            recent.time = now;
+
+            // keep most frecent values
+            sort(recents, now);
+            while (recents.size() > maxSize) {
+                recents.remove(recents.size() - 1);
             }
+            write(recents);
         }
 
-        @Override
-        public void onPause() {
-            dismissKeyboard(svPickableListSearch);
-            super.onPause();
+        /**
+         * Obtain most frecent values
+         *
+         * @param limit
+         * @return
+         * @throws IOException
+         * @since 0.8.0
+         */
+        @NonNull
+        public synchronized List<Pickable> getValues(int limit) throws IOException {
+            List<Recent> recents = load();
+            sort(recents, System.currentTimeMillis());
+            List<Pickable> values = new ArrayList<>(Math.min(limit, recents.size()));
+            for (int i = 0; i < recents.size() && i < limit; i++) {
+                Recent recent = recents.get(i);
+                values.add(new SnapshotPickable(recent.objectId, recent.name, recent.description, recent.color));
+            }
+            return values;
         }
 
-        @Override
-        public void onClick(Pickable pickable) {
-            dismissKeyboard(svPickableListSearch);
-            dismiss();
-            if (provider != null) {
-                provider.onValueSelected(pickable);
+        /**
+         * Forget all recent values
+         *
+         * @since 0.8.0
+         */
+        public synchronized void clear() {
+            recents = new ArrayList<>();
+            if (file.exists()) {
+                file.delete();
             }
-            clear();
         }
 
-        private void search() {
-            // show loading
-            slPickableList.showLoading();
-
-            // bind recycler adapter & values
-            Task<List<Pickable>> task = provider.getValues(query);
+        private void sort(@NonNull List<Recent> recents, final long now) {
+            Collections.sort(recents, (a, b) -> Double.compare(b.frecency(now, halfLife), a.frecency(now, halfLife)));
+        }
 
-            // handle loading states
-            task.addOnSuccessListener(requireActivity(), pickables -> {
-                if (pickables.isEmpty()) {
-                    slPickableList.showEmpty();
-                } else {
-                    adapter.submitList(pickables);
-                    slPickableList.showContent();
+        @NonNull
+        private List<Recent> load() throws IOException {
+            if (recents != null) {
+                return recents;
+            }
+            recents = new ArrayList<>();
+            if (!file.exists()) {
+                return recents;
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                 FileChannel channel = raf.getChannel()) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.getInt() != MAGIC) {
+                    throw new IOException("Invalid recents " + file);
                 }
-            });
-
-            // handle load error
-            task.addOnFailureListener(requireActivity(), e -> slPickableList.showError());
+                int count = SnapshotStore.readCount(buffer);
+                for (int i = 0; i < count; i++) {
+                    String objectId = SnapshotStore.readString(buffer);
+                    Recent recent = new Recent(objectId != null ? objectId : "", buffer.getInt(), buffer.getLong());
+                    recent.name = SnapshotStore.readString(buffer);
+                    recent.description = SnapshotStore.readString(buffer);
+                    recent.color = SnapshotStore.readString(buffer);
+                    recents.add(recent);
+                }
+                return recents;
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Truncated recents " + file, e);
+            }
         }
 
-        public void setProvider(Provider provider) {
-            this.query = Query.create();
-            this.provider = provider;
-        }
+        private void write(@NonNull List<Recent> recents) throws IOException {
+            File directory = file.getParentFile();
+            if (directory != null && !directory.exists() && !directory.mkdirs()) {
+                throw new IOException("Unable to create " + directory);
+            }
 
-        public void clear() {
-            // TODO: implement
+            // write to temporary file and swap
+            File temp = new File(file.getPath() + ".tmp");
+            try (DataOutputStream out =
+                         new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(recents.size());
+                for (Recent recent : recents) {
+                    SnapshotStore.writeString(out, recent.objectId);
+                    out.writeInt(recent.count);
+                    out.writeLong(recent.time);
+                    SnapshotStore.writeString(out, recent.name);
+                    SnapshotStore.writeString(out, recent.description);
+                    SnapshotStore.writeString(out, recent.color);
+                }
+            }
+            if (!temp.renameTo(file)) {
+                throw new IOException("Unable to replace " + file);
+            }
         }
 
-        private void showKeyboard(View view) {
-            InputMethodManager imm =
-                    (InputMethodManager) view.getContext().getSystemService(Context.INPUT_METHOD_SERVICE);
-            if (imm != null) {
-                imm.showSoftInput(view, InputMethodManager.SHOW_FORCED);
+        private static class Recent {
+            final String objectId;
+            String name;
+            String description;
+            String color;
+            int count;
+            long time;
+
+            Recent(@NonNull String objectId, int count, long time) {
+                this.objectId = objectId;
+                this.count = count;
+                this.time = time;
             }
-        }
 
-        private void dismissKeyboard(View view) {
-            InputMethodManager imm =
-                    (InputMethodManager) view.getContext().getSystemService(Context.INPUT_METHOD_SERVICE);
-            if (imm != null) {
-                imm.hideSoftInputFromWindow(view.getWindowToken(), 0);
+            double frecency(long now, long halfLife) {
+                long age = Math.max(0, now - time);
+                return count * Math.pow(0.5, (double) age / halfLife);
             }
         }
     }
 
     /**
-     * {@link BottomSheetDialogFragment} for {@link Pickable} values
+     * Recent first {@link Pickable} provider.
+     * <p>
+     * Record values selected through {@link #onValueSelected(Pickable)} in a {@link RecentStore}
+     * and stream most frecent values first on open, before decorated provider responds, followed
+     * by remaining values of decorated provider.
+     *
+     * @since 0.8.0
      */
-    public static class PickableBottomSheetDialogFragment extends BottomSheetDialogFragment
-            implements OnClickListener {
-        public static final String TAG = PickableBottomSheetDialogFragment.class.getSimpleName();
-
-        private StateLayout slPickableList;
-        private SearchView svPickableListSearch;
-        private AppCompatTextView etPickableListTitle;
-        private RecyclerView rvPickableListValues;
-        private Query query = Query.create();
-        private Provider provider;
-        private PickableAdapter adapter;
+    public abstract static class RecentsProvider<T extends Pickable> implements StreamingProvider<T> {
+        public static final int DEFAULT_LIMIT = 5;
 
-        public PickableBottomSheetDialogFragment() {
-            setRetainInstance(true);
-        }
+        private final Provider<T> provider;
+        private final RecentStore store;
 
-        public PickableBottomSheetDialogFragment(@NonNull Provider provider) {
+        public RecentsProvider(@NonNull Context context, @NonNull String name, @NonNull Provider<T> provider) {
             this.provider = provider;
+            this.store = new RecentStore(context.getApplicationContext(), name);
         }
 
         /**
-         * Instantiate new bottom sheet picker in not exists
+         * Convert a recent value into provider value
          *
+         * @param recent
          * @return
-         * @since 0.1.0
+         * @since 0.8.0
          */
-        public static PickableBottomSheetDialogFragment newInstance() {
-            // TODO improve picker intent
-            final Bundle args = new Bundle();
-            args.getString("ID", PickableBottomSheetDialogFragment.TAG);
-            final PickableBottomSheetDialogFragment fragment = new PickableBottomSheetDialogFragment();
-            fragment.setArguments(args);
-            return fragment;
+        @NonNull
+        protected abstract T fromRecent(@NonNull Pickable recent);
+
+        /**
+         * Specifies the maximum number of recent values shown on open
+         *
+         * @return
+         * @since 0.8.0
+         */
+        public int getLimit() {
+            return DEFAULT_LIMIT;
+        }
+
+        @NonNull
+        public RecentStore getStore() {
+            return store;
         }
 
-        @Nullable
         @Override
-        public View onCreateView(
-                @NonNull LayoutInflater inflater,
-                @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
-            // inflate
-            View view = inflater.inflate(R.layout.list_pickable, container, false);
+        public String getTitle() {
+            return provider.getTitle();
+        }
 
-            // setup state layout
-            slPickableList = view.findViewById(R.id.slPickableList);
+        @Override
+        public String getSearchHint() {
+            return provider.getSearchHint();
+        }
 
-            // obtain required views
-            svPickableListSearch = view.findViewById(R.id.svPickableListSearch);
-            rvPickableListValues = view.findViewById(R.id.content_pickable);
-            etPickableListTitle = view.findViewById(R.id.etPickableListTitle);
+        @Override
+        public int getThreshold() {
+            return provider.getThreshold();
+        }
 
-            // bind adapters
-            adapter = new PickableAdapter(this);
-            rvPickableListValues.setAdapter(adapter);
+        @Override
+        public long getDebounce() {
+            return provider.getDebounce();
+        }
 
-            // return view
-            return view;
+        @NonNull
+        @Override
+        public LoadingMode getLoadingMode() {
+            return provider.getLoadingMode();
         }
 
+        @NonNull
         @Override
-        public void onActivityCreated(@Nullable Bundle savedInstanceState) {
-            super.onActivityCreated(savedInstanceState);
+        public List<T> prepare(@NonNull Query query, @NonNull List<T> values) {
+            return provider.prepare(query, values);
+        }
 
-            // set search hint
-            String searchHint = provider.getSearchHint();
-            if (Common.Strings.isEmpty(searchHint)) {
-                searchHint = getString(R.string.hint_list_values_search);
+        @Override
+        public void stream(@NonNull Query query, @NonNull CancellationToken token, @NonNull Emitter<T> emitter) {
+            // searches are not affected by recents
+            if (!textOf(query).isEmpty()) {
+                forward(provider.getValues(query, token), Collections.emptySet(), emitter);
+                return;
             }
-            svPickableListSearch.setQueryHint(searchHint);
 
-            // Set SearchView QueryTextListener
-            svPickableListSearch.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
-                @Override
-                public boolean onQueryTextSubmit(String q) {
-                    dismissKeyboard(svPickableListSearch);
-                    query = Common.Strings.isEmpty(q) ? Query.create() : Query.create(q);
-                    if (q.length() >= provider.getThreshold()) {
-                        search();
+            // load values alongside recents, emit recents, then remaining values
+            final Task<List<T>> values = provider.getValues(query, token);
+            Task<List<Pickable>> recents = Tasks.call(getExecutor(), () -> store.getValues(getLimit()));
+            recents.addOnCompleteListener(getExecutor(), result -> {
+                Set<String> objectIds = new HashSet<>();
+                if (result.isSuccessful() && !token.isCancellationRequested()) {
+                    List<T> shown = new ArrayList<>();
+                    for (Pickable recent : result.getResult()) {
+                        objectIds.add(recent.getObjectId());
+                        shown.add(fromRecent(recent));
                     }
-                    return true;
+                    emitter.onBatch(shown);
                 }
+                forward(values, objectIds, emitter);
+            });
+        }
 
-                @Override
-                public boolean onQueryTextChange(String q) {
-                    query = Common.Strings.isEmpty(q) ? Query.create() : Query.create(q);
-                    if (q.length() >= provider.getThreshold()) {
-                        search();
-                    }
-                    return true;
+        @NonNull
+        @Override
+        public void onValueSelected(T pickable) {
+            getExecutor().execute(() -> {
+                try {
+                    store.record(pickable);
+                } catch (IOException e) {
+                    // ignore, selection is not remembered
                 }
             });
+            provider.onValueSelected(pickable);
+        }
 
-            // Set focus on the SearchView and open the keyboard
-            svPickableListSearch.setOnQueryTextFocusChangeListener((view, hasFocus) -> {
-                if (hasFocus) {
-                    showKeyboard(view.findFocus());
+        private void forward(
+                @NonNull Task<List<T>> task, @NonNull final Set<String> excluded, @NonNull final Emitter<T> emitter) {
+            task.addOnCompleteListener(getExecutor(), result -> {
+                if (!result.isSuccessful()) {
+                    Exception error = result.getException();
+                    emitter.onError(error != null ? error : new Exception());
+                    return;
+                }
+                List<T> values = new ArrayList<>();
+                List<T> loaded = result.getResult();
+                for (T value : loaded != null ? loaded : Collections.<T>emptyList()) {
+                    if (!excluded.contains(value.getObjectId())) {
+                        values.add(value);
+                    }
                 }
+                emitter.onBatch(values);
+                emitter.onComplete();
             });
+        }
+    }
 
-            // set title
-            String title = provider.getTitle();
-            if (Common.Strings.isEmpty(title)) {
-                title = getString(R.string.text_pickable_list_title);
+    /**
+     * Typo tolerant matcher ranking folded keys against a folded query.
+     * <p>
+     * Matches, best first, are prefixes, word prefixes, substrings, subsequences and
+     * word prefixes within one edit(i.e insertion, deletion, substitution or transposition)
+     * of the query. Scoring allocates nothing.
+     *
+     * @since 0.8.0
+     */
+    public static class FuzzyMatcher {
+        public static final int NO_MATCH = 0;
+        public static final int MIN_TYPO_LENGTH = 3;
+
+        private static final int PREFIX = 1000;
+        private static final int WORD_PREFIX = 800;
+        private static final int SUBSTRING = 600;
+        private static final int SUBSEQUENCE = 400;
+        private static final int TYPO = 200;
+        private static final int SECONDARY = 50;
+
+        /**
+         * Score a key against a query, keys may join name and description with a line break
+         *
+         * @param key   folded key
+         * @param query folded query
+         * @return match score or {@link #NO_MATCH}
+         * @since 0.8.0
+         */
+        public static int score(@NonNull String key, @NonNull String query) {
+            int length = query.length();
+            if (length == 0) {
+                return PREFIX;
             }
-            etPickableListTitle.setText(title);
 
-            // bind recycler adapter & values
-            search();
-        }
+            // prefix, word prefix or substring
+            int secondary = key.indexOf('\n');
+            int index = key.indexOf(query);
+            if (index == 0) {
+                return PREFIX;
+            }
+            if (index > 0) {
+                int penalty = secondary >= 0 && index > secondary ? SECONDARY : 0;
+                int band = isWordStart(key, index) ? WORD_PREFIX : SUBSTRING;
+                return band - penalty - Math.min(index, 99);
+            }
 
-        @Override
-        public void onPause() {
-            dismissKeyboard(svPickableListSearch);
-            super.onPause();
-        }
+            // subsequence, within name
+            int end = secondary >= 0 ? secondary : key.length();
+            int gaps = 0;
+            int matched = 0;
+            int last = -1;
+            for (int i = 0; i < end && matched < length; i++) {
+                if (key.charAt(i) == query.charAt(matched)) {
+                    if (last >= 0 && i > last + 1) {
+                        gaps++;
+                    }
+                    last = i;
+                    matched++;
+                }
+            }
+            if (matched == length) {
+                return SUBSEQUENCE - Math.min(gaps, 99);
+            }
 
-        @Override
-        public void onClick(Pickable pickable) {
-            dismissKeyboard(svPickableListSearch);
-            dismiss();
-            if (provider != null) {
-                provider.onValueSelected(pickable);
+            // word prefix within one edit
+            if (length >= MIN_TYPO_LENGTH) {
+                for (int i = 0; i < key.length(); i++) {
+                    if (isWordStart(key, i) && withinOneEdit(key, i, query)) {
+                        return TYPO - (secondary >= 0 && i > secondary ? SECONDARY : 0);
+                    }
+                }
             }
-            clear();
+
+            return NO_MATCH;
         }
 
-        private void search() {
-            // show loading
-            slPickableList.showLoading();
+        /**
+         * Obtain matched ranges of a query within a key
+         *
+         * @param key   folded key
+         * @param query folded query
+         * @return start and end pairs of matched ranges or null if no match
+         * @since 0.8.0
+         */
+        @Nullable
+        public static int[] ranges(@NonNull String key, @NonNull String query) {
+            int length = query.length();
+            if (length == 0) {
+                return null;
+            }
+
+            // prefix, word prefix or substring
+            int index = key.indexOf(query);
+            if (index >= 0) {
+                return new int[]{index, index + length};
+            }
 
-            // bind recycler adapter & values
-            Task<List<Pickable>> task = provider.getValues(query);
+            // subsequence, merge adjacent characters
+            int[] ranges = new int[length * 2];
+            int count = 0;
+            int matched = 0;
+            for (int i = 0; i < key.length() && matched < length; i++) {
+                if (key.charAt(i) == query.charAt(matched)) {
+                    if (count > 0 && ranges[count - 1] == i) {
+                        ranges[count - 1] = i + 1;
+                    } else {
+                        ranges[count++] = i;
+                        ranges[count++] = i + 1;
+                    }
+                    matched++;
+                }
+            }
+            if (matched == length) {
+                return Arrays.copyOf(ranges, count);
+            }
 
-            // handle loading states
-            task.addOnSuccessListener(requireActivity(), pickables -> {
-                if (pickables.isEmpty()) {
-                    slPickableList.showEmpty();
-                } else {
-                    adapter.submitList(pickables);
-                    slPickableList.showContent();
+            // word prefix within one edit
+            if (length >= MIN_TYPO_LENGTH) {
+                for (int i = 0; i < key.length(); i++) {
+                    if (isWordStart(key, i) && withinOneEdit(key, i, query)) {
+                        return new int[]{i, Math.min(i + length, key.length())};
+                    }
                 }
-            });
+            }
 
-            // handle load error
-            task.addOnFailureListener(requireActivity(), e -> slPickableList.showError());
+            return null;
         }
 
-        public void setProvider(Provider provider) {
-            this.query = Query.create();
-            this.provider = provider;
+        private static boolean isWordStart(@NonNull String key, int index) {
+            return index == 0 || !Character.isLetterOrDigit(key.charAt(index - 1));
         }
 
-        public void clear() {
-            // TODO: implement
+        /**
+         * Check if key region starting at given index is within one edit of query
+         */
+        private static boolean withinOneEdit(@NonNull String key, int start, @NonNull String query) {
+            int available = key.length() - start;
+            int length = query.length();
+            return (available >= length && sameLengthWithinOneEdit(key, start, query))
+                    || (available >= length - 1 && oneInsertion(key, start, length - 1, query))
+                    || (available >= length + 1 && oneDeletion(key, start, length + 1, query));
         }
 
-        private void showKeyboard(View view) {
-            InputMethodManager imm =
-                    (InputMethodManager) view.getContext().getSystemService(Context.INPUT_METHOD_SERVICE);
-            if (imm != null) {
-                imm.showSoftInput(view, InputMethodManager.SHOW_FORCED);
+        // substitution or adjacent transposition
+        private static boolean sameLengthWithinOneEdit(@NonNull String key, int start, @NonNull String query) {
+            int first = -1;
+            int length = query.length();
+            for (int i = 0; i < length; i++) {
+                if (key.charAt(start + i) != query.charAt(i)) {
+                    if (first < 0) {
+                        first = i;
+                    } else if (i == first + 1 && key.charAt(start + first) == query.charAt(i)
+                            && key.charAt(start + i) == query.charAt(first)) {
+                        first = Integer.MAX_VALUE;
+                    } else {
+                        return false;
+                    }
+                }
             }
+            return true;
         }
 
-        private void dismissKeyboard(View view) {
-            InputMethodManager imm =
-                    (InputMethodManager) view.getContext().getSystemService(Context.INPUT_METHOD_SERVICE);
-            if (imm != null) {
-                imm.hideSoftInputFromWindow(view.getWindowToken(), 0);
+        // query has one extra character compared to key region
+        private static boolean oneInsertion(@NonNull String key, int start, int regionLength, @NonNull String query) {
+            int i = 0;
+            int j = 0;
+            boolean skipped = false;
+            while (i < regionLength && j < query.length()) {
+                if (key.charAt(start + i) == query.charAt(j)) {
+                    i++;
+                    j++;
+                } else if (!skipped) {
+                    skipped = true;
+                    j++;
+                } else {
+                    return false;
+                }
             }
+            return (regionLength - i) + (query.length() - j) + (skipped ? 1 : 0) <= 1;
         }
 
+        // query misses one character compared to key region
+        private static boolean oneDeletion(@NonNull String key, int start, int regionLength, @NonNull String query) {
+            int i = 0;
+            int j = 0;
+            boolean skipped = false;
+            while (i < regionLength && j < query.length()) {
+                if (key.charAt(start + i) == query.charAt(j)) {
+                    i++;
+                    j++;
+                } else if (!skipped) {
+                    skipped = true;
+                    i++;
+                } else {
+                    return false;
+                }
+            }
+            return (regionLength - i) + (query.length() - j) + (skipped ? 1 : 0) <= 1;
+        }
     }
 
     /**
-     * Simple {@link Pickable} provider
+     * Accent and case insensitive text folding.
+     * <p>
+     * Text is decomposed(Unicode NFKD), stripped off combining marks and lower cased
+     * using locale rules, so that e.g "S&atilde;o Tom&eacute;" and "sao tome" fold to same key.
      *
-     * @since 0.7.0
+     * @since 0.8.0
      */
-    public abstract static class SimpleProvider<T extends Pickable> implements Provider<T> {
-        @Override
-        public int getThreshold() {
-            return 1;
+    public static class Folding {
+        private Folding() {
+        }
+
+        /**
+         * Fold a given text using default locale
+         *
+         * @param text
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        public static String fold(@Nullable String text) {
+            return fold(text, Locale.getDefault());
+        }
+
+        /**
+         * Fold a given text
+         *
+         * @param text
+         * @param locale
+         * @return
+         * @since 0.8.0
+         */
+        @NonNull
+        public static String fold(@Nullable String text, @NonNull Locale locale) {
+            return text == null ? "" : fold(text, locale, null);
+        }
+
+        /**
+         * Check if name or description of a given pickable contain a folded text
+         *
+         * @param pickable
+         * @param text     folded text
+         * @return
+         * @since 0.8.0
+         */
+        public static boolean matches(@NonNull Pickable pickable, @NonNull String text) {
+            String description = pickable.getDescription();
+            return fold(pickable.getName()).contains(text)
+                    || (description != null && fold(description).contains(text));
+        }
+
+        /**
+         * Obtain matched ranges, within original text, of a folded query
+         *
+         * @param text
+         * @param query folded query
+         * @return start and end pairs of matched ranges or null if no match
+         * @since 0.8.0
+         */
+        @Nullable
+        public static int[] ranges(@NonNull String text, @NonNull String query) {
+            // fold and keep original offsets
+            int[] offsets = new int[text.length() * 4 + 1];
+            String key = fold(text, Locale.getDefault(), offsets);
+            int[] ranges = FuzzyMatcher.ranges(key, query);
+            if (ranges == null) {
+                return null;
+            }
+
+            // map folded ranges back to original text
+            for (int i = 0; i + 1 < ranges.length; i += 2) {
+                int start = Math.min(ranges[i], offsets.length - 1);
+                int end = Math.min(ranges[i + 1], offsets.length);
+                ranges[i] = offsets[start];
+                ranges[i + 1] = end > 0 ? offsets[end - 1] + 1 : 0;
+            }
+            return ranges;
+        }
+
+        private static String fold(@NonNull String text, @NonNull Locale locale, @Nullable int[] offsets) {
+            String language = locale.getLanguage();
+            boolean special = "tr".equals(language) || "az".equals(language) || "lt".equals(language);
+            StringBuilder folded = new StringBuilder(text.length());
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+
+                // fast path ascii
+                if (c < 0x80 && !special) {
+                    record(offsets, folded.length(), i);
+                    folded.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+                    continue;
+                }
+
+                // decompose, strip marks and lower case
+                String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFKD);
+                for (int j = 0; j < decomposed.length(); j++) {
+                    char d = decomposed.charAt(j);
+                    int type = Character.getType(d);
+                    if (type == Character.NON_SPACING_MARK
+                            || type == Character.COMBINING_SPACING_MARK
+                            || type == Character.ENCLOSING_MARK) {
+                        continue;
+                    }
+                    String lower = String.valueOf(d).toLowerCase(locale);
+                    for (int k = 0; k < lower.length(); k++) {
+                        record(offsets, folded.length(), i);
+                        folded.append(lower.charAt(k));
+                    }
+                }
+            }
+            return folded.toString();
+        }
+
+        private static void record(@Nullable int[] offsets, int index, int offset) {
+            if (offsets != null && index < offsets.length) {
+                offsets[index] = offset;
+            }
         }
     }
 }
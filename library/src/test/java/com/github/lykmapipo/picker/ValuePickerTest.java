@@ -1,16 +1,61 @@
 package com.github.lykmapipo.picker;
 
 import android.content.Context;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.database.SQLException;
+import android.graphics.drawable.Drawable;
+import android.os.CancellationSignal;
+import android.view.ContextThemeWrapper;
+import android.view.KeyEvent;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.SearchView;
 
+import androidx.annotation.NonNull;
+import androidx.appcompat.widget.AppCompatTextView;
+import androidx.core.widget.TextViewCompat;
+import androidx.fragment.app.FragmentActivity;
+import androidx.recyclerview.widget.RecyclerView;
 import androidx.test.core.app.ApplicationProvider;
 
+import com.github.lykmapipo.common.data.Query;
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.CancellationTokenSource;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 @RunWith(RobolectricTestRunner.class)
 public class ValuePickerTest {
@@ -19,6 +64,7 @@ public class ValuePickerTest {
     @Before
     public void setup() {
         context = ApplicationProvider.getApplicationContext();
+        ValuePicker.setExecutor(Runnable::run);
     }
 
     @Test
@@ -26,9 +72,1197 @@ public class ValuePickerTest {
         assertNotNull("Should provide value picker", 1l);
     }
 
+    @Test
+    public void testShouldDebounceSearches() {
+        final int[] calls = {0};
+        final List<List<ValuePicker.Pickable>> delivered = new ArrayList<>();
+        ValuePicker.Provider<ValuePicker.Pickable> provider = new TestProvider() {
+            @NonNull
+            @Override
+            public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query) {
+                calls[0]++;
+                return Tasks.forResult(new ArrayList<>());
+            }
+        };
+        ValuePicker.SearchPipeline pipeline =
+                new ValuePicker.SearchPipeline(provider, new TestListener(delivered));
+
+        pipeline.search(Query.create("a"));
+        pipeline.search(Query.create("ab"));
+        pipeline.search(Query.create("abc"));
+        ShadowLooper.idleMainLooper(ValuePicker.DEFAULT_DEBOUNCE, TimeUnit.MILLISECONDS);
+
+        assertEquals("Should search once", 1, calls[0]);
+        assertEquals("Should deliver once", 1, delivered.size());
+    }
+
+    @Test
+    public void testShouldDropSupersededSearches() {
+        final List<CancellationToken> tokens = new ArrayList<>();
+        final List<TaskCompletionSource<List<ValuePicker.Pickable>>> sources = new ArrayList<>();
+        final List<List<ValuePicker.Pickable>> delivered = new ArrayList<>();
+        ValuePicker.Provider<ValuePicker.Pickable> provider = new TestProvider() {
+            @NonNull
+            @Override
+            public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query) {
+                return getValues(query, new CancellationTokenSource().getToken());
+            }
+
+            @NonNull
+            @Override
+            public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query, @NonNull CancellationToken token) {
+                TaskCompletionSource<List<ValuePicker.Pickable>> source = new TaskCompletionSource<>();
+                tokens.add(token);
+                sources.add(source);
+                return source.getTask();
+            }
+        };
+        ValuePicker.SearchPipeline pipeline =
+                new ValuePicker.SearchPipeline(provider, new TestListener(delivered));
+
+        pipeline.searchNow(Query.create("d"));
+        pipeline.searchNow(Query.create("do"));
+
+        assertTrue("Should cancel superseded search", tokens.get(0).isCancellationRequested());
+        assertFalse("Should keep latest search", tokens.get(1).isCancellationRequested());
+
+        sources.get(1).setResult(Collections.singletonList(new TestPickable("2", "Dodoma", "Central")));
+        sources.get(0).setResult(Collections.singletonList(new TestPickable("1", "Dar es Salaam", "Coast")));
+        ShadowLooper.idleMainLooper();
+
+        assertEquals("Should deliver latest search only", 1, delivered.size());
+        assertEquals("Should deliver latest values", "2", delivered.get(0).get(0).getObjectId());
+    }
+
+    @Test
+    public void testShouldDropCancelledSearches() {
+        final List<CancellationToken> tokens = new ArrayList<>();
+        final TaskCompletionSource<List<ValuePicker.Pickable>> source = new TaskCompletionSource<>();
+        final List<List<ValuePicker.Pickable>> delivered = new ArrayList<>();
+        ValuePicker.Provider<ValuePicker.Pickable> provider = new TestProvider() {
+            @NonNull
+            @Override
+            public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query) {
+                return source.getTask();
+            }
+
+            @NonNull
+            @Override
+            public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query, @NonNull CancellationToken token) {
+                tokens.add(token);
+                return source.getTask();
+            }
+        };
+        ValuePicker.SearchPipeline pipeline =
+                new ValuePicker.SearchPipeline(provider, new TestListener(delivered));
+
+        pipeline.searchNow(Query.create("d"));
+        assertTrue("Should be searching", pipeline.isSearching());
+        pipeline.cancel();
+        source.setResult(Collections.singletonList(new TestPickable("2", "Dodoma", "Central")));
+        ShadowLooper.idleMainLooper();
+
+        assertTrue("Should cancel provider token", tokens.get(0).isCancellationRequested());
+        assertFalse("Should not be searching", pipeline.isSearching());
+        assertTrue("Should drop late values", delivered.isEmpty());
+    }
+
+    @Test
+    public void testShouldStreamValuesProgressively() {
+        final List<ValuePicker.StreamingProvider.Emitter<ValuePicker.Pickable>> emitters = new ArrayList<>();
+        final List<List<ValuePicker.Pickable>> progress = new ArrayList<>();
+        final List<List<ValuePicker.Pickable>> delivered = new ArrayList<>();
+        ValuePicker.Provider<ValuePicker.Pickable> provider = new TestStreamingProvider() {
+            @Override
+            public void stream(@NonNull Query query, @NonNull CancellationToken token,
+                               @NonNull Emitter<ValuePicker.Pickable> emitter) {
+                emitters.add(emitter);
+            }
+        };
+        ValuePicker.SearchPipeline pipeline =
+                new ValuePicker.SearchPipeline(provider, new TestListener(delivered) {
+                    @Override
+                    public void onSearchProgress(@NonNull Query query, @NonNull List<ValuePicker.Pickable> pickables) {
+                        progress.add(pickables);
+                    }
+                });
+
+        pipeline.searchNow(Query.create("d"));
+        ValuePicker.StreamingProvider.Emitter<ValuePicker.Pickable> emitter = emitters.get(0);
+        emitter.onBatch(Collections.singletonList(new TestPickable("1", "Dar es Salaam", "Coast")));
+        emitter.onBatch(Collections.singletonList(new TestPickable("2", "Dodoma", "Central")));
+        ShadowLooper.idleMainLooper(20, TimeUnit.MILLISECONDS);
+        emitter.onBatch(Collections.singletonList(new TestPickable("3", "Kondoa", "Central")));
+        emitter.onComplete();
+        ShadowLooper.idleMainLooper(20, TimeUnit.MILLISECONDS);
+
+        assertEquals("Should coalesce batches within a frame", 1, progress.size());
+        assertEquals("Should show first batches", 2, progress.get(0).size());
+        assertEquals("Should deliver once", 1, delivered.size());
+        assertEquals("Should deliver all values", 3, delivered.get(0).size());
+    }
+
+    @Test
+    public void testShouldQueryCursorValues() {
+        final List<Cursor> delivered = new ArrayList<>();
+        final List<Cursor> queried = new ArrayList<>();
+        ValuePicker.CursorProvider<ValuePicker.Pickable> provider = new ValuePicker.CursorProvider<ValuePicker.Pickable>() {
+            @NonNull
+            @Override
+            protected Cursor query(@NonNull Query query, @NonNull CancellationSignal signal) {
+                MatrixCursor cursor = new MatrixCursor(new String[]{COLUMN_OBJECT_ID, COLUMN_NAME});
+                cursor.addRow(new Object[]{"1", "Dar es Salaam"});
+                cursor.addRow(new Object[]{"2", "Dodoma"});
+                queried.add(cursor);
+                return cursor;
+            }
+
+            @NonNull
+            @Override
+            protected ValuePicker.Pickable fromCursor(@NonNull Cursor cursor) {
+                return new TestPickable(cursor.getString(0), cursor.getString(1), null);
+            }
+
+            @Override
+            public String getTitle() {
+                return "Test";
+            }
+
+            @Override
+            public String getSearchHint() {
+                return "Search...";
+            }
+
+            @Override
+            public void onValueSelected(ValuePicker.Pickable pickable) {
+            }
+        };
+        ValuePicker.SearchPipeline pipeline =
+                new ValuePicker.SearchPipeline(provider, new TestListener(new ArrayList<>()) {
+                    @Override
+                    public void onSearchCursor(@NonNull Query query, @NonNull Cursor cursor) {
+                        delivered.add(cursor);
+                    }
+                });
+
+        pipeline.searchNow(Query.create("d"));
+        ShadowLooper.idleMainLooper();
+
+        assertEquals("Should escape like pattern", "50\\%\\_off%",
+                ValuePicker.CursorProvider.likeOf(Query.create("50%_off")));
+        assertEquals("Should deliver cursor", 1, delivered.size());
+        assertEquals("Should deliver all rows", 2, delivered.get(0).getCount());
+        assertEquals("Should materialize values", 2, provider.getValues(Query.create()).getResult().size());
+        assertTrue("Should close materialized cursor", queried.get(1).isClosed());
+    }
+
+    @Test
+    public void testShouldReadCursorRows() {
+        MatrixCursor cursor = new MatrixCursor(new String[]{
+                ValuePicker.CursorProvider.COLUMN_OBJECT_ID, ValuePicker.CursorProvider.COLUMN_NAME,
+                ValuePicker.CursorProvider.COLUMN_DESCRIPTION, ValuePicker.CursorProvider.COLUMN_COLOR});
+        cursor.addRow(new Object[]{"1", "Dar es Salaam", "Coast", "#FF0000"});
+        cursor.addRow(new Object[]{"2", "Dodoma", null, null});
+        ValuePicker.CursorRow row = new ValuePicker.CursorRow();
+
+        cursor.moveToFirst();
+        row.read(cursor, 0, 1, 2, 3);
+
+        assertEquals("Should read name", "Dar es Salaam", row.getName());
+        assertEquals("Should read description", "Coast", row.getDescription());
+        assertEquals("Should read colour", "#FFFF0000", row.getColor());
+
+        cursor.moveToNext();
+        row.read(cursor, 0, 1, 2, 3);
+
+        assertEquals("Should read object id", "2", row.getObjectId());
+        assertNull("Should read missing description", row.getDescription());
+        assertNull("Should read missing colour", row.getColor());
+        cursor.close();
+    }
+
+    @Test
+    public void testShouldIndexAllPages() {
+        TestPagedProvider provider = new TestPagedProvider();
+        ValuePicker.FtsIndex index = new ValuePicker.FtsIndex(context, "paged");
+
+        Task<Integer> built = index.build(provider, Runnable::run);
+        provider.complete(0, 2);
+        provider.complete(1, 2);
+        provider.complete(2, 1);
+
+        assertEquals("Should load pages in order", Arrays.asList(0, 1, 2), provider.pages);
+        assertEquals("Should index values of all pages", Integer.valueOf(5), built.getResult());
+        index.close();
+    }
+
+    @Test
+    public void testShouldSearchFullTextIndex() {
+        List<ValuePicker.Pickable> values = new ArrayList<>();
+        values.add(new TestPickable("1", "Amana Hospital", "Dar es Salaam"));
+        values.add(new TestPickable("2", "Dar Hospital", "Coast"));
+        values.add(new TestPickable("3", "Dodoma Clinic", "Central"));
+        ValuePicker.FtsIndex index = new ValuePicker.FtsIndex(context, "facilities");
+        index.replaceAll(values);
+
+        assertEquals("Should index all values", 3, index.size());
+        assertEquals("Should match all tokens", Arrays.asList("2", "1"), objectIdsOf(index, "dar hosp"));
+        assertEquals("Should rank name matches first", Arrays.asList("2", "1"), objectIdsOf(index, "dar"));
+
+        index.upsert(Collections.singletonList(new TestPickable("3", "Dar Clinic", "Central")));
+        index.delete(Collections.singletonList("1"));
+
+        assertEquals("Should update values", Arrays.asList("3", "2"), objectIdsOf(index, "dar"));
+        assertEquals("Should delete values", 2, index.size());
+
+        try {
+            index.replaceAll(Arrays.asList(new TestPickable("9", "Arusha", null), new TestPickable("9", "Moshi", null)));
+            fail("Should reject duplicate values");
+        } catch (SQLException e) {
+            assertEquals("Should keep values of a failed replace", 2, index.size());
+        }
+        index.close();
+    }
+
+    @Test
+    public void testShouldCacheValues() {
+        final int[] calls = {0};
+        ValuePicker.CachingProvider<ValuePicker.Pickable> provider =
+                new ValuePicker.CachingProvider<>(new TestProvider() {
+                    @NonNull
+                    @Override
+                    public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query) {
+                        calls[0]++;
+                        return Tasks.forResult(new ArrayList<>());
+                    }
+                });
+
+        provider.getValues(Query.create("a"));
+        ShadowLooper.idleMainLooper();
+        provider.getValues(Query.create("a"));
+        provider.getValues(Query.create("b"));
+        provider.getValues(Query.create("A"));
+
+        assertEquals("Should load once per query", 3, calls[0]);
+        assertEquals("Should count hits", 1, provider.getHitCount());
+        assertEquals("Should count misses", 3, provider.getMissCount());
+    }
+
+    @Test
+    public void testShouldPrepareCachedValues() {
+        ValuePicker.CachingProvider<ValuePicker.Pickable> provider =
+                new ValuePicker.CachingProvider<>(new TestProvider() {
+                    @NonNull
+                    @Override
+                    public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query) {
+                        return Tasks.forResult(new ArrayList<>(Arrays.asList(
+                                new TestPickable("2", "Dodoma", "Central"),
+                                new TestPickable("1", "Arusha", "North"))));
+                    }
+
+                    @NonNull
+                    @Override
+                    public List<ValuePicker.Pickable> prepare(@NonNull Query query, @NonNull List<ValuePicker.Pickable> values) {
+                        Collections.sort(values, (a, b) -> a.getName().compareTo(b.getName()));
+                        return values;
+                    }
+                });
+
+        provider.getValues(Query.create("a"));
+        List<ValuePicker.Pickable> cached = provider.getValues(Query.create("a")).getResult();
+        List<ValuePicker.Pickable> prepared = provider.prepare(Query.create("a"), cached);
+
+        assertEquals("Should serve from cache", 1, provider.getHitCount());
+        assertEquals("Should forward prepare", "1", prepared.get(0).getObjectId());
+        assertEquals("Should keep cached order", "2",
+                provider.getValues(Query.create("a")).getResult().get(0).getObjectId());
+    }
+
+    @Test
+    public void testShouldCoalesceInFlightValues() {
+        final List<CancellationToken> tokens = new ArrayList<>();
+        final TaskCompletionSource<List<ValuePicker.Pickable>> source = new TaskCompletionSource<>();
+        ValuePicker.CoalescingProvider<ValuePicker.Pickable> provider =
+                new ValuePicker.CoalescingProvider<>(new TestProvider() {
+                    @NonNull
+                    @Override
+                    public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query) {
+                        return source.getTask();
+                    }
+
+                    @NonNull
+                    @Override
+                    public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query, @NonNull CancellationToken token) {
+                        tokens.add(token);
+                        return source.getTask();
+                    }
+                });
+        CancellationTokenSource first = new CancellationTokenSource();
+        CancellationTokenSource second = new CancellationTokenSource();
+
+        Task<List<ValuePicker.Pickable>> firstTask = provider.getValues(Query.create("a"), first.getToken());
+        Task<List<ValuePicker.Pickable>> secondTask = provider.getValues(Query.create("A"), second.getToken());
+        first.cancel();
+
+        assertEquals("Should load once", 1, provider.getLoadCount());
+        assertEquals("Should share in-flight load", 1, provider.getShareCount());
+        assertTrue("Should cancel consumer", firstTask.isCanceled());
+        assertFalse("Should keep shared load", tokens.get(0).isCancellationRequested());
+
+        source.setResult(new ArrayList<>());
+
+        assertTrue("Should deliver to remaining consumer", secondTask.isSuccessful());
+        provider.getValues(Query.create("a"), new CancellationTokenSource().getToken()).getResult();
+        assertEquals("Should load again once completed", 2, provider.getLoadCount());
+    }
+
+    @Test
+    public void testShouldResumeSessionSearches() {
+        final List<CancellationToken> tokens = new ArrayList<>();
+        final TaskCompletionSource<List<ValuePicker.Pickable>> source = new TaskCompletionSource<>();
+        ValuePicker.Provider<ValuePicker.Pickable> provider = new TestProvider() {
+            @NonNull
+            @Override
+            public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query) {
+                return source.getTask();
+            }
+
+            @NonNull
+            @Override
+            public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query, @NonNull CancellationToken token) {
+                tokens.add(token);
+                return source.getTask();
+            }
+        };
+        final List<List<ValuePicker.Pickable>> stale = new ArrayList<>();
+        final List<List<ValuePicker.Pickable>> delivered = new ArrayList<>();
+        ValuePicker.SearchPipeline first = new ValuePicker.SearchPipeline(provider, new TestListener(stale));
+        ValuePicker.SearchPipeline second = new ValuePicker.SearchPipeline(provider, new TestListener(delivered));
+        ValuePicker.PickerSessions sessions = new ValuePicker.PickerSessions();
+        ValuePicker.PickerSession session = sessions.get("regions");
+        sessions.get("districts");
+
+        first.searchNow(Query.create("d"));
+        session.inFlight = first.detach();
+        first.cancel();
+        second.attach(session.inFlight);
+        source.setResult(Collections.singletonList(new TestPickable("2", "Dodoma", "Central")));
+        ShadowLooper.idleMainLooper();
+
+        assertEquals("Should load once", 1, tokens.size());
+        assertFalse("Should keep detached load", tokens.get(0).isCancellationRequested());
+        assertTrue("Should not deliver to detached pipeline", stale.isEmpty());
+        assertEquals("Should deliver to attached pipeline", 1, delivered.size());
+        assertEquals("Should keep sessions by key", 2, sessions.size());
+
+        session.clear();
+
+        assertFalse("Should release session", sessions.contains("regions"));
+        assertTrue("Should keep other sessions", sessions.contains("districts"));
+        assertNotEquals("Should not share sessions between containers",
+                ValuePicker.tagOf(ValuePicker.PickableDialogFragment.TAG, ValuePicker.DEFAULT_KEY),
+                ValuePicker.tagOf(ValuePicker.PickableBottomSheetDialogFragment.TAG, ValuePicker.DEFAULT_KEY));
+    }
+
+    @Test
+    public void testShouldFilterLocalValues() {
+        List<ValuePicker.Pickable> values = new ArrayList<>();
+        values.add(new TestPickable("1", "Dar es Salaam", "Coast"));
+        values.add(new TestPickable("2", "Dodoma", "Central"));
+        values.add(new TestPickable("3", "Arusha", "North"));
+        ValuePicker.FoldedIndex<ValuePicker.Pickable> index =
+                new ValuePicker.FoldedIndex<>(values, Locale.ENGLISH);
+
+        assertEquals("Should return all values", 3, index.filter("").size());
+        assertEquals("Should match single letter", 3, index.filter("a").size());
+        assertEquals("Should narrow matches", 2, index.filter("ar").size());
+        assertEquals("Should narrow matches", 1, index.filter("aru").size());
+        assertEquals("Should match description", 1, index.filter("central").size());
+        assertEquals("Should miss unknown", 0, index.filter("xyz").size());
+    }
+
+    @Test
+    public void testShouldNarrowRowsOffMainThread() {
+        List<ValuePicker.Pickable> rows = Arrays.asList(
+                new ValuePicker.PickableRow(new TestPickable("1", "Dar es Salaam", "Coast"), "d"),
+                new ValuePicker.PickableRow(new TestPickable("2", "Dodoma", "Central"), "d"),
+                new ValuePicker.PickableRow(new TestPickable("3", "Arusha", "Northern"), ""));
+
+        List<ValuePicker.Pickable> narrowed = ValuePicker.PickableRow.filter(rows, "do", null).getResult();
+
+        assertEquals("Should narrow rows", 1, narrowed.size());
+        assertArrayEquals("Should re-highlight rows", new int[]{0, 2},
+                ((ValuePicker.PickableRow) narrowed.get(0)).highlights);
+        assertEquals("Should match description", 1, ValuePicker.PickableRow.filter(rows, "north", null).getResult().size());
+    }
+
+    @Test
+    public void testShouldCacheLetterAvatars() {
+        ValuePicker.AvatarCache cache = new ValuePicker.AvatarCache(2);
+
+        Drawable first = cache.letterAvatarFor("D", null);
+        Drawable second = cache.letterAvatarFor("D", null);
+        first.setBounds(0, 0, 40, 40);
+        second.setBounds(0, 0, 20, 20);
+        first.setAlpha(128);
+
+        assertEquals("Should create avatar once", 1, cache.getMissCount());
+        assertEquals("Should serve avatar from cache", 1, cache.getHitCount());
+        assertNotSame("Should not share drawable between views", first, second);
+        assertSame("Should share letter avatar", ((ValuePicker.AvatarCache.LetterAvatar) first).avatar,
+                ((ValuePicker.AvatarCache.LetterAvatar) second).avatar);
+        assertEquals("Should keep own bounds", 40, first.getBounds().width());
+        assertEquals("Should keep own bounds", 20, second.getBounds().width());
+        assertEquals("Should keep own alpha", 255, second.getAlpha());
+
+        ValuePicker.AvatarCache.LetterAvatar row = new ValuePicker.AvatarCache.LetterAvatar();
+        assertSame("Should rebind row avatar", row, cache.letterAvatarFor(row, 'A', null));
+        Drawable shared = row.avatar;
+        cache.letterAvatarFor(row, 'D', null);
+        cache.letterAvatarFor(row, 'R', null);
+
+        assertEquals("Should evict least recently used", 3, cache.getMissCount());
+
+        cache.letterAvatarFor(row, 'D', null);
+        assertEquals("Should keep recently used", 3, cache.getMissCount());
+        cache.letterAvatarFor(row, 'A', null);
+        assertEquals("Should reload evicted", 4, cache.getMissCount());
+        assertNotSame("Should recreate evicted", shared, row.avatar);
+    }
+
+    @Test
+    public void testShouldSlidePagesWindow() {
+        TestPagedProvider provider = new TestPagedProvider();
+        ValuePicker.Pager pager = new ValuePicker.Pager(provider, new ValuePicker.PickableAdapter(pickable -> {
+        }));
+        Query query = Query.create("d");
+
+        pager.reset(query, TestPagedProvider.page(0, 2));
+        pager.onLoadPrevious();
+        pager.onLoadNext();
+        pager.onLoadNext();
+
+        assertEquals("Should request next page once", Collections.singletonList(1), provider.pages);
+
+        provider.complete(1, 2);
+        pager.onLoadNext();
+        provider.complete(2, 2);
+
+        assertEquals("Should evict first page", 1, pager.getFirstPage());
+        assertEquals("Should keep max pages", 2, pager.getPageCount());
+
+        pager.onLoadPrevious();
+        provider.complete(0, 2);
+
+        assertEquals("Should load previous page", 0, pager.getFirstPage());
+        assertEquals("Should evict last page", 2, pager.getPageCount());
+        assertFalse("Should load evicted pages again", pager.isExhausted());
+
+        pager.onLoadNext();
+        pager.onLoadNext();
+        pager.onLoadNext();
+        provider.complete(2, 1);
+        pager.onLoadNext();
+
+        assertTrue("Should stop on short page", pager.isExhausted());
+        assertEquals("Should not request past short page", Arrays.asList(1, 2, 0, 2), provider.pages);
+    }
+
+    @Test
+    public void testShouldDropStalePages() {
+        TestPagedProvider provider = new TestPagedProvider();
+        ValuePicker.Pager pager = new ValuePicker.Pager(provider, new ValuePicker.PickableAdapter(pickable -> {
+        }));
+
+        pager.reset(Query.create("d"), TestPagedProvider.page(0, 2));
+        pager.onLoadNext();
+        pager.reset(Query.create("do"), TestPagedProvider.page(0, 2));
+        provider.complete(1, 2);
+
+        assertTrue("Should cancel stale page", provider.tokens.get(0).isCancellationRequested());
+        assertEquals("Should drop stale page", 1, pager.getPageCount());
+        assertEquals("Should keep first page", 0, pager.getFirstPage());
+
+        pager.onLoadNext();
+        provider.complete(1, 2);
+
+        assertEquals("Should page after reset", 2, pager.getPageCount());
+    }
+
+    @Test
+    public void testShouldReportMetrics() {
+        final List<String> reported = new ArrayList<>();
+        ValuePicker.setMetrics(new ValuePicker.PickerMetrics() {
+            @Override
+            public void onQuerySuccess(@NonNull ValuePicker.Provider provider, @NonNull Query query,
+                                       long millis, int size) {
+                reported.add("success " + ValuePicker.textOf(query) + " " + size);
+            }
+
+            @Override
+            public void onCacheLookup(@NonNull String cache, boolean hit) {
+                reported.add(cache + " " + (hit ? "hit" : "miss"));
+            }
+        });
+        ValuePicker.Provider<ValuePicker.Pickable> provider = new ValuePicker.CachingProvider<>(new TestProvider() {
+            @NonNull
+            @Override
+            public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query) {
+                return Tasks.forResult(Collections.singletonList(new TestPickable("1", "Dodoma", null)));
+            }
+        });
+        ValuePicker.SearchPipeline pipeline =
+                new ValuePicker.SearchPipeline(provider, new TestListener(new ArrayList<>()));
+
+        pipeline.searchNow(Query.create("do"));
+        ShadowLooper.idleMainLooper();
+        pipeline.searchNow(Query.create("do"));
+        ShadowLooper.idleMainLooper();
+
+        assertEquals("Should report query successes and cache lookups", Arrays.asList(
+                ValuePicker.PickerMetrics.CACHE_QUERIES + " miss", "success do 1",
+                ValuePicker.PickerMetrics.CACHE_QUERIES + " hit", "success do 1"), reported);
+    }
+
+    @Test
+    public void testShouldTakePrewarmedValues() {
+        final List<CancellationToken> tokens = new ArrayList<>();
+        ValuePicker.Provider<ValuePicker.Pickable> provider = new TestProvider() {
+            @NonNull
+            @Override
+            public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query) {
+                return new TaskCompletionSource<List<ValuePicker.Pickable>>().getTask();
+            }
+
+            @NonNull
+            @Override
+            public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query, @NonNull CancellationToken token) {
+                tokens.add(token);
+                return getValues(query);
+            }
+        };
+        ValuePicker.Provider<ValuePicker.Pickable> other = new TestProvider() {
+            @NonNull
+            @Override
+            public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query) {
+                return Tasks.forResult(new ArrayList<>());
+            }
+        };
+        ActivityController<FragmentActivity> activity = Robolectric.buildActivity(FragmentActivity.class).setup();
+
+        ValuePicker.prewarm(activity.get(), provider);
+        ValuePicker.prewarm(activity.get(), provider);
+
+        assertEquals("Should load prewarmed values once", 1, tokens.size());
+        assertNull("Should miss other providers", ValuePicker.takePrewarmed(other));
+        assertNotNull("Should hit prewarmed provider", ValuePicker.takePrewarmed(provider));
+        assertNull("Should take prewarmed values once", ValuePicker.takePrewarmed(provider));
+        assertNotNull("Should keep prewarmed rows", ValuePicker.prewarmedPoolOf(activity.get()));
+
+        ValuePicker.prewarm(activity.get(), provider);
+        activity.destroy();
+
+        assertFalse("Should not cancel taken values", tokens.get(0).isCancellationRequested());
+        assertTrue("Should cancel values not taken", tokens.get(1).isCancellationRequested());
+        assertNull("Should release prewarmed values", ValuePicker.takePrewarmed(provider));
+        assertNull("Should release prewarmed rows", ValuePicker.prewarmedPoolOf(activity.get()));
+    }
+
+    @Test
+    public void testShouldRestoreValuesBelowThreshold() {
+        final TaskCompletionSource<List<ValuePicker.Pickable>> source = new TaskCompletionSource<>();
+        final List<CancellationToken> tokens = new ArrayList<>();
+        ValuePicker.Provider<ValuePicker.Pickable> provider = new TestProvider() {
+            @Override
+            public int getThreshold() {
+                return 2;
+            }
+
+            @Override
+            public long getDebounce() {
+                return 0;
+            }
+
+            @NonNull
+            @Override
+            public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query) {
+                return Tasks.forResult(Arrays.asList(
+                        new TestPickable("1", "Dar es Salaam", null), new TestPickable("2", "Dodoma", null)));
+            }
+
+            @NonNull
+            @Override
+            public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query, @NonNull CancellationToken token) {
+                if (ValuePicker.textOf(query).isEmpty()) {
+                    return getValues(query);
+                }
+                tokens.add(token);
+                return source.getTask();
+            }
+        };
+        ValuePicker.PickerController controller = new ValuePicker.PickerController(() -> {
+        });
+        Context themed = new ContextThemeWrapper(context, R.style.Theme_MaterialComponents_Light_NoActionBar);
+        View view = controller.createView(LayoutInflater.from(themed), null);
+        RecyclerView values = view.findViewById(R.id.content_pickable);
+        SearchView search = view.findViewById(R.id.svPickableListSearch);
+        controller.setProvider(provider);
+        controller.start();
+        ShadowLooper.idleMainLooper();
+
+        search.setQuery("do", false);
+        assertEquals("Should search above threshold", 1, tokens.size());
+
+        search.setQuery("d", false);
+        source.setResult(Collections.singletonList(new TestPickable("2", "Dodoma", null)));
+        ShadowLooper.idleMainLooper();
+
+        assertTrue("Should cancel search", tokens.get(0).isCancellationRequested());
+        assertEquals("Should restore shown values", 2, values.getAdapter().getItemCount());
+        assertEquals("Should stop loading", View.GONE, view.findViewById(R.id.pbPickableList).getVisibility());
+        controller.stop();
+    }
+
+    @Test
+    public void testShouldCancelLoadsOnClear() {
+        final TaskCompletionSource<List<ValuePicker.Pickable>> source = new TaskCompletionSource<>();
+        final List<CancellationToken> tokens = new ArrayList<>();
+        ValuePicker.Provider<ValuePicker.Pickable> provider = new TestProvider() {
+            @NonNull
+            @Override
+            public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query) {
+                return source.getTask();
+            }
+
+            @NonNull
+            @Override
+            public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query, @NonNull CancellationToken token) {
+                tokens.add(token);
+                return source.getTask();
+            }
+        };
+        ValuePicker.PickerController controller = new ValuePicker.PickerController(() -> {
+        });
+        Context themed = new ContextThemeWrapper(context, R.style.Theme_MaterialComponents_Light_NoActionBar);
+        controller.createView(LayoutInflater.from(themed), null);
+        controller.setProvider(provider);
+        controller.start();
+
+        controller.clear();
+        source.setResult(Collections.singletonList(new TestPickable("1", "Dar es Salaam", null)));
+        ShadowLooper.idleMainLooper();
+
+        assertTrue("Should cancel in-flight load", tokens.get(0).isCancellationRequested());
+        assertNull("Should release provider", controller.getProvider());
+    }
+
+    @Test
+    public void testShouldNavigateLevels() {
+        final List<String> loads = new ArrayList<>();
+        ValuePicker.TreeProvider<ValuePicker.Pickable> provider = new TestTreeProvider(loads);
+        ValuePicker.PickerController controller = new ValuePicker.PickerController(() -> {
+        });
+        Context themed = new ContextThemeWrapper(context, R.style.Theme_MaterialComponents_Light_NoActionBar);
+        controller.createView(LayoutInflater.from(themed), null);
+        controller.setProvider(provider);
+        controller.start();
+        ShadowLooper.idleMainLooper();
+        ValuePicker.Pickable coast = new TestPickable("1", "Coast", null);
+        ValuePicker.Pickable central = new TestPickable("2", "Central", null);
+        KeyEvent released = new KeyEvent(KeyEvent.ACTION_UP, KeyEvent.KEYCODE_BACK);
+        KeyEvent pressed = new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_BACK);
+
+        assertFalse("Should not navigate up from root", controller.onBackKey(KeyEvent.KEYCODE_BACK, released));
+
+        controller.onClick(coast);
+        ShadowLooper.idleMainLooper();
+
+        assertFalse("Should wait for back key release", controller.onBackKey(KeyEvent.KEYCODE_BACK, pressed));
+        assertTrue("Should navigate up on back", controller.onBackKey(KeyEvent.KEYCODE_BACK, released));
+        assertFalse("Should stop at root", controller.navigateUp());
+
+        controller.onClick(coast);
+        ShadowLooper.idleMainLooper();
+        controller.navigateUp();
+        controller.onClick(central);
+        ShadowLooper.idleMainLooper();
+        controller.navigateUp();
+        controller.onClick(coast);
+        ShadowLooper.idleMainLooper();
+
+        assertEquals("Should reuse cached levels and evict eldest",
+                Arrays.asList("root", "1", "2", "1"), loads);
+        controller.stop();
+    }
+
+    @Test
+    public void testShouldToggleSelections() {
+        ValuePicker.Pickable dar = new TestPickable("1", "Dar es Salaam", "Coast");
+        ValuePicker.Pickable dodoma = new TestPickable("2", "Dodoma", "Central");
+        ValuePicker.SelectionSet selection = new ValuePicker.SelectionSet();
+
+        assertTrue("Should select", selection.toggle(dar));
+        assertTrue("Should select", selection.toggle(ValuePicker.PickableRow.of(dodoma)));
+        assertTrue("Should contain by id", selection.contains(new TestPickable("1", "Dar", null)));
+        assertFalse("Should unselect", selection.toggle(dar));
+        assertEquals("Should keep unwrapped values", dodoma, selection.getValues().get(0));
+    }
+
+    @Test
+    public void testShouldWriteAndReadSnapshot() throws Exception {
+        List<ValuePicker.Pickable> values = new ArrayList<>();
+        values.add(new TestPickable("1", "Dar es Salaam", "Coast"));
+        values.add(new TestPickable("2", "Zanzibar", null));
+        ValuePicker.SnapshotStore store = new ValuePicker.SnapshotStore(context, "regions");
+
+        store.write(values);
+        List<ValuePicker.Pickable> snapshot = store.read();
+
+        assertTrue("Should report size", store.getSize() > 0);
+        assertEquals("Should read all values", 2, snapshot.size());
+        assertEquals("Should read id", "1", snapshot.get(0).getObjectId());
+        assertEquals("Should read name", "Dar es Salaam", snapshot.get(0).getName());
+        assertEquals("Should read description", "Coast", snapshot.get(0).getDescription());
+        assertNull("Should read missing description", snapshot.get(1).getDescription());
+        assertEquals("Should report existing size", store.getSize(),
+                new ValuePicker.SnapshotStore(context, "regions").getSize());
+        store.clear();
+    }
+
+    @Test
+    public void testShouldRejectCorruptSnapshots() throws Exception {
+        writeInts("corrupt.snapshot", 0x56504b31, Integer.MAX_VALUE);
+        assertInvalid(new ValuePicker.SnapshotStore(context, "corrupt"));
+        writeInts("corrupt.snapshot", 0x56504b31, 1, Integer.MAX_VALUE);
+        assertInvalid(new ValuePicker.SnapshotStore(context, "corrupt"));
+        writeInts("corrupt.snapshot", 0x56504b31, 1, -2);
+        assertInvalid(new ValuePicker.SnapshotStore(context, "corrupt"));
+
+        writeInts("corrupt.recents", 0x56505231, Integer.MAX_VALUE);
+        ValuePicker.RecentStore recents = new ValuePicker.RecentStore(context, "corrupt");
+        try {
+            recents.getValues(5);
+            fail("Should reject corrupt recents");
+        } catch (IOException e) {
+            assertEquals("Should report invalid recents", "Invalid snapshot", e.getMessage());
+        } finally {
+            recents.clear();
+        }
+    }
+
+    @Test
+    public void testShouldReplaceSnapshotWithFreshValues() throws Exception {
+        final TaskCompletionSource<List<ValuePicker.Pickable>> source = new TaskCompletionSource<>();
+        final List<List<ValuePicker.Pickable>> progress = new ArrayList<>();
+        final List<List<ValuePicker.Pickable>> delivered = new ArrayList<>();
+        TestProvider fresh = new TestProvider() {
+            @NonNull
+            @Override
+            public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query) {
+                return source.getTask();
+            }
+        };
+        ValuePicker.SnapshotProvider<ValuePicker.Pickable> provider =
+                new ValuePicker.SnapshotProvider<ValuePicker.Pickable>(context, "districts", fresh) {
+                    @NonNull
+                    @Override
+                    protected ValuePicker.Pickable fromSnapshot(@NonNull ValuePicker.Pickable snapshot) {
+                        return snapshot;
+                    }
+                };
+        provider.getStore().write(Collections.singletonList(new TestPickable("1", "Ilala", null)));
+        ValuePicker.SearchPipeline pipeline =
+                new ValuePicker.SearchPipeline(provider, new TestListener(delivered) {
+                    @Override
+                    public void onSearchProgress(@NonNull Query query, @NonNull List<ValuePicker.Pickable> pickables) {
+                        progress.add(pickables);
+                    }
+                });
+
+        pipeline.searchNow(Query.create());
+        ShadowLooper.idleMainLooper(20, TimeUnit.MILLISECONDS);
+
+        assertEquals("Should show snapshot first", 1, progress.size());
+        assertEquals("Should show snapshot values", "Ilala", progress.get(0).get(0).getName());
+        assertTrue("Should keep loading fresh values", delivered.isEmpty());
+
+        source.setResult(Arrays.asList(
+                new TestPickable("1", "Ilala", null), new TestPickable("2", "Kinondoni", null)));
+        ShadowLooper.idleMainLooper(20, TimeUnit.MILLISECONDS);
+
+        assertEquals("Should deliver once", 1, delivered.size());
+        assertEquals("Should replace snapshot values", 2, delivered.get(0).size());
+        assertEquals("Should not repeat snapshot values", "Kinondoni", delivered.get(0).get(1).getName());
+        assertEquals("Should refresh snapshot", 2, provider.getStore().read().size());
+        provider.getStore().clear();
+    }
+
+    @Test
+    public void testShouldRankRecentValues() throws Exception {
+        ValuePicker.Pickable dar = new TestPickable("1", "Dar es Salaam", "Coast");
+        ValuePicker.Pickable dodoma = new TestPickable("2", "Dodoma", "Central");
+        ValuePicker.RecentStore store = new ValuePicker.RecentStore(context, "regions");
+
+        store.record(dodoma);
+        store.record(dar);
+        store.record(ValuePicker.PickableRow.of(dar));
+        List<ValuePicker.Pickable> recents = new ValuePicker.RecentStore(context, "regions").getValues(5);
+
+        assertEquals("Should keep values once", 2, recents.size());
+        assertEquals("Should rank frequent first", "1", recents.get(0).getObjectId());
+        assertEquals("Should read name", "Dodoma", recents.get(1).getName());
+        assertEquals("Should limit values", 1, store.getValues(1).size());
+        store.clear();
+    }
+
+    @Test
+    public void testShouldStreamRecentsFirst() throws Exception {
+        final List<Runnable> queued = new ArrayList<>();
+        final List<Query> loads = new ArrayList<>();
+        final List<String> events = new ArrayList<>();
+        final TaskCompletionSource<List<ValuePicker.Pickable>> source = new TaskCompletionSource<>();
+        ValuePicker.RecentsProvider<ValuePicker.Pickable> provider =
+                new TestRecentsProvider(context, loads, source.getTask());
+        provider.getStore().record(new TestPickable("2", "Dodoma", "Central"));
+        ValuePicker.setExecutor(queued::add);
+
+        provider.stream(Query.create(), new CancellationTokenSource().getToken(), new TestEmitter(events));
+
+        assertEquals("Should load values alongside recents", 1, loads.size());
+        assertTrue("Should not have read recents yet", events.isEmpty());
+        runAll(queued);
+        assertEquals("Should emit recents first", Collections.singletonList("batch [2]"), events);
+
+        source.setResult(Arrays.asList(new TestPickable("1", "Dar es Salaam", "Coast"),
+                new TestPickable("2", "Dodoma", "Central"), new TestPickable("3", "Arusha", "North")));
+        runAll(queued);
+
+        assertEquals("Should emit remaining values without duplicates",
+                Arrays.asList("batch [2]", "batch [1, 3]", "complete"), events);
+        provider.getStore().clear();
+    }
+
+    @Test
+    public void testShouldSearchWithoutRecents() throws Exception {
+        final List<Query> loads = new ArrayList<>();
+        final List<String> events = new ArrayList<>();
+        final TaskCompletionSource<List<ValuePicker.Pickable>> source = new TaskCompletionSource<>();
+        ValuePicker.RecentsProvider<ValuePicker.Pickable> provider =
+                new TestRecentsProvider(context, loads, source.getTask());
+        provider.getStore().record(new TestPickable("2", "Dodoma", "Central"));
+
+        provider.stream(Query.create("d"), new CancellationTokenSource().getToken(), new TestEmitter(events));
+        source.setResult(Arrays.asList(
+                new TestPickable("1", "Dar es Salaam", "Coast"), new TestPickable("2", "Dodoma", "Central")));
+
+        assertEquals("Should search once", 1, loads.size());
+        assertEquals("Should bypass recents", Arrays.asList("batch [1, 2]", "complete"), events);
+        provider.getStore().clear();
+    }
+
+    @Test
+    public void testShouldPrecomputeRowText() {
+        AppCompatTextView view = new AppCompatTextView(context);
+        ValuePicker.RowText rowText = new ValuePicker.RowText(
+                TextViewCompat.getTextMetricsParams(view), TextViewCompat.getTextMetricsParams(view));
+        ValuePicker.Pickable pickable = new TestPickable("2", "Dodoma", "Central");
+
+        ValuePicker.PickableRow row = new ValuePicker.PickableRow(pickable, "dod").precompute(0, rowText);
+        ValuePicker.PickableRow tail =
+                new ValuePicker.PickableRow(pickable, "dod").precompute(ValuePicker.RowText.MAX_ROWS, rowText);
+        ValuePicker.PickableRow plain = new ValuePicker.PickableRow(pickable, "dod").precompute(0, null);
+
+        assertNotNull("Should precompute name", row.precomputedName);
+        assertEquals("Should keep name", "Dodoma", row.precomputedName.toString());
+        assertEquals("Should keep description", "Central", row.precomputedDescription.toString());
+        assertNull("Should cap precomputed rows", tail.precomputedName);
+        assertNull("Should skip without row text", plain.precomputedName);
+    }
+
+    @Test
+    public void testShouldRankFuzzyMatches() {
+        int prefix = ValuePicker.FuzzyMatcher.score("dodoma", "dod");
+        int word = ValuePicker.FuzzyMatcher.score("dar es salaam", "salaam");
+        int subsequence = ValuePicker.FuzzyMatcher.score("dar es salaam", "slm");
+        int typo = ValuePicker.FuzzyMatcher.score("arusha", "aruhsa");
+
+        assertTrue("Should rank prefix first", prefix > word);
+        assertTrue("Should rank word prefix over subsequence", word > subsequence);
+        assertTrue("Should rank subsequence over typo", subsequence > typo);
+        assertTrue("Should tolerate typo", typo > ValuePicker.FuzzyMatcher.NO_MATCH);
+        assertEquals("Should not match", ValuePicker.FuzzyMatcher.NO_MATCH,
+                ValuePicker.FuzzyMatcher.score("arusha", "xyz"));
+        assertArrayEquals("Should range substring", new int[]{7, 13},
+                ValuePicker.FuzzyMatcher.ranges("dar es salaam", "salaam"));
+    }
+
+    @Test
+    public void testShouldFoldAccentsAndCase() {
+        assertEquals("Should fold", "sao tome", ValuePicker.Folding.fold("S\u00e3o Tom\u00e9", Locale.ENGLISH));
+        assertEquals("Should fold", "zurich", ValuePicker.Folding.fold("Z\u00dcRICH", Locale.ENGLISH));
+        assertArrayEquals("Should map ranges to original text", new int[]{4, 8},
+                ValuePicker.Folding.ranges("S\u00e3o Tom\u00e9", "tome"));
+    }
+
     @After
     public void cleanup() {
         context = null;
+        ValuePicker.setExecutor(null);
+        ValuePicker.setMetrics(null);
+    }
+
+    void writeInts(String name, int... values) throws IOException {
+        File directory = new File(context.getFilesDir(), "pickables");
+        assertTrue("Should create directory", directory.exists() || directory.mkdirs());
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(new File(directory, name)))) {
+            for (int value : values) {
+                out.writeInt(value);
+            }
+        }
+    }
+
+    static void assertInvalid(ValuePicker.SnapshotStore store) {
+        try {
+            store.read();
+            fail("Should reject corrupt snapshot");
+        } catch (IOException e) {
+            assertEquals("Should report invalid snapshot", "Invalid snapshot", e.getMessage());
+        } finally {
+            store.clear();
+        }
+    }
+
+    static void runAll(List<Runnable> queued) {
+        while (!queued.isEmpty()) {
+            queued.remove(0).run();
+        }
+    }
+
+    static List<String> objectIdsOf(ValuePicker.FtsIndex index, String q) {
+        List<String> objectIds = new ArrayList<>();
+        try (Cursor cursor = index.query(Query.create(q), null)) {
+            while (cursor.moveToNext()) {
+                objectIds.add(cursor.getString(cursor.getColumnIndex(ValuePicker.CursorProvider.COLUMN_OBJECT_ID)));
+            }
+        }
+        return objectIds;
+    }
+
+    abstract static class TestProvider extends ValuePicker.SimpleProvider<ValuePicker.Pickable> {
+        @Override
+        public String getTitle() {
+            return "Test";
+        }
+
+        @Override
+        public String getSearchHint() {
+            return "Search...";
+        }
+
+        @Override
+        public void onValueSelected(ValuePicker.Pickable pickable) {
+        }
+    }
+
+    abstract static class TestStreamingProvider extends TestProvider
+            implements ValuePicker.StreamingProvider<ValuePicker.Pickable> {
+    }
+
+    static class TestPagedProvider extends TestProvider implements ValuePicker.PagedProvider<ValuePicker.Pickable> {
+        final List<Integer> pages = new ArrayList<>();
+        final List<CancellationToken> tokens = new ArrayList<>();
+        final List<TaskCompletionSource<List<ValuePicker.Pickable>>> sources = new ArrayList<>();
+
+        static List<ValuePicker.Pickable> page(int page, int size) {
+            List<ValuePicker.Pickable> values = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                String id = page + "." + i;
+                values.add(new TestPickable(id, "Value " + id, null));
+            }
+            return values;
+        }
+
+        void complete(int page, int size) {
+            sources.get(sources.size() - 1).setResult(page(page, size));
+            ShadowLooper.idleMainLooper();
+        }
+
+        @NonNull
+        @Override
+        public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query) {
+            return getValues(query, 0, new CancellationTokenSource().getToken());
+        }
+
+        @NonNull
+        @Override
+        public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query, @NonNull CancellationToken token) {
+            return getValues(query, 0, token);
+        }
+
+        @NonNull
+        @Override
+        public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query, int page, @NonNull CancellationToken token) {
+            TaskCompletionSource<List<ValuePicker.Pickable>> source = new TaskCompletionSource<>();
+            pages.add(page);
+            tokens.add(token);
+            sources.add(source);
+            return source.getTask();
+        }
+
+        @Override
+        public int getPageSize() {
+            return 2;
+        }
+
+        @Override
+        public int getMaxPages() {
+            return 2;
+        }
+    }
+
+    static class TestTreeProvider extends TestProvider implements ValuePicker.TreeProvider<ValuePicker.Pickable> {
+        final List<String> loads;
+
+        TestTreeProvider(List<String> loads) {
+            this.loads = loads;
+        }
+
+        @NonNull
+        @Override
+        public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query) {
+            loads.add("root");
+            return Tasks.forResult(Arrays.asList(
+                    new TestPickable("1", "Coast", null), new TestPickable("2", "Central", null)));
+        }
+
+        @Override
+        public boolean hasChildren(@NonNull ValuePicker.Pickable pickable) {
+            return !pickable.getObjectId().contains(".");
+        }
+
+        @NonNull
+        @Override
+        public Task<List<ValuePicker.Pickable>> getChildren(@NonNull ValuePicker.Pickable parent, @NonNull Query query,
+                                                            @NonNull CancellationToken token) {
+            loads.add(parent.getObjectId());
+            String id = parent.getObjectId() + ".1";
+            return Tasks.forResult(Collections.singletonList(new TestPickable(id, "District " + id, null)));
+        }
+
+        @Override
+        public int getLevelCacheSize() {
+            return 1;
+        }
+    }
+
+    static class TestRecentsProvider extends ValuePicker.RecentsProvider<ValuePicker.Pickable> {
+        TestRecentsProvider(Context context, List<Query> loads, Task<List<ValuePicker.Pickable>> values) {
+            super(context, "recent_regions", new TestProvider() {
+                @NonNull
+                @Override
+                public Task<List<ValuePicker.Pickable>> getValues(@NonNull Query query) {
+                    loads.add(query);
+                    return values;
+                }
+            });
+        }
+
+        @NonNull
+        @Override
+        protected ValuePicker.Pickable fromRecent(@NonNull ValuePicker.Pickable recent) {
+            return recent;
+        }
+    }
+
+    static class TestEmitter implements ValuePicker.StreamingProvider.Emitter<ValuePicker.Pickable> {
+        final List<String> events;
+
+        TestEmitter(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void onBatch(@NonNull List<ValuePicker.Pickable> batch) {
+            events.add("batch " + idsOf(batch));
+        }
+
+        @Override
+        public void onReplace(@NonNull List<ValuePicker.Pickable> values) {
+            events.add("replace " + idsOf(values));
+        }
+
+        @Override
+        public void onComplete() {
+            events.add("complete");
+        }
+
+        @Override
+        public void onError(@NonNull Exception error) {
+            events.add("error");
+        }
+
+        static List<String> idsOf(List<ValuePicker.Pickable> values) {
+            List<String> objectIds = new ArrayList<>();
+            for (ValuePicker.Pickable value : values) {
+                objectIds.add(value.getObjectId());
+            }
+            return objectIds;
+        }
+    }
+
+    static class TestPickable implements ValuePicker.Pickable {
+        final String id;
+        final String name;
+        final String description;
+
+        TestPickable(String id, String name, String description) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+        }
+
+        @NonNull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public String getColor() {
+            return null;
+        }
+
+        @NonNull
+        @Override
+        public String getObjectId() {
+            return id;
+        }
+    }
+
+    static class TestListener implements ValuePicker.SearchPipeline.Listener {
+        final List<List<ValuePicker.Pickable>> delivered;
+
+        TestListener(List<List<ValuePicker.Pickable>> delivered) {
+            this.delivered = delivered;
+        }
+
+        @Override
+        public void onSearchStart(@NonNull Query query) {
+        }
+
+        @Override
+        public void onSearchSuccess(@NonNull Query query, @NonNull List<ValuePicker.Pickable> pickables) {
+            delivered.add(pickables);
+        }
+
+        @Override
+        public void onSearchFailure(@NonNull Query query, @NonNull Exception error) {
+        }
     }
 
-}
\ No newline at end of file
+}